@@ -1,6 +1,6 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
-import { Observable } from 'rxjs';
+import { HttpClient, HttpParams } from '@angular/common/http';
+import { Observable, map } from 'rxjs';
 import { BookingAddOnLine, BookingAddOnResponse } from './addon.service';
 
 export interface BookingResponse {
@@ -39,6 +39,12 @@ export interface BookingResponse {
   addOns?: BookingAddOnResponse[];
 }
 
+/** One page of GET /api/bookings/my; nextCursor is null on the last page. */
+export interface BookingPage {
+  bookings: BookingResponse[];
+  nextCursor: string | null;
+}
+
 @Injectable({ providedIn: 'root' })
 export class BookingService {
   private readonly baseUrl = '/api/bookings';
@@ -49,10 +55,11 @@ export class BookingService {
     showId: number,
     showSeatIds: number[],
     notes?: string,
-    addOns?: BookingAddOnLine[]
+    addOns?: BookingAddOnLine[],
+    quoteToken?: string | null
   ): Observable<BookingResponse> {
     return this.http.post<BookingResponse>(`${this.baseUrl}/show-seats`, {
-      showId, showSeatIds, notes, addOns
+      showId, showSeatIds, notes, addOns, quoteToken
     });
   }
 
@@ -60,8 +67,18 @@ export class BookingService {
     return this.http.post<BookingResponse>(`${this.baseUrl}/${bookingId}/confirm`, {});
   }
 
-  getMyBookings(): Observable<BookingResponse[]> {
-    return this.http.get<BookingResponse[]>(`${this.baseUrl}/my`);
+  /** One page of the booking history, newest first; pass nextCursor back for the next. */
+  getMyBookingsPage(cursor?: string | null, limit = 50): Observable<BookingPage> {
+    let params = new HttpParams().set('limit', limit);
+    if (cursor) {
+      params = params.set('cursor', cursor);
+    }
+    return this.http.get<BookingResponse[]>(`${this.baseUrl}/my`, { params, observe: 'response' }).pipe(
+      map(res => ({
+        bookings: res.body ?? [],
+        nextCursor: res.headers.get('X-Next-Cursor')
+      }))
+    );
   }
 
   cancelBooking(bookingId: number): Observable<void> {
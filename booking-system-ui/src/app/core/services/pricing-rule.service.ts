@@ -13,6 +13,8 @@ export interface PricingRule {
   endHour?: number | null;
   minLeadTimeHours?: number | null;
   maxLeadTimeHours?: number | null;
+  minOccupancyPercent?: number | null;
+  maxOccupancyPercent?: number | null;
   multiplier: number;
   createdAt?: string;
   updatedAt?: string;
@@ -85,8 +85,8 @@ export class ShowService {
     return this.http.get<ShowSeatResponse[]>(`${this.baseUrl}/${showId}/seats/available`);
   }
 
-  lockSeats(showId: number, showSeatIds: number[]): Observable<{ success: boolean; message: string }> {
-    return this.http.post<{ success: boolean; message: string }>(
+  lockSeats(showId: number, showSeatIds: number[]): Observable<{ success: boolean; message: string; quote?: { token: string | null } }> {
+    return this.http.post<{ success: boolean; message: string; quote?: { token: string | null } }>(
       `${this.baseUrl}/${showId}/seats/lock`,
       { showSeatIds }
     );
@@ -38,7 +38,7 @@ import { PricingRule, PricingRuleService } from '../../core/services/pricing-rul
             <thead>
               <tr>
                 <th>Priority</th><th>Name</th><th>Active</th><th>Days</th>
-                <th>Hours</th><th>Lead Time</th><th>Multiplier</th><th></th>
+                <th>Hours</th><th>Lead Time</th><th>Occupancy</th><th>Multiplier</th><th></th>
               </tr>
             </thead>
             <tbody>
@@ -56,6 +56,7 @@ import { PricingRule, PricingRuleService } from '../../core/services/pricing-rul
                   <td>{{ r.daysOfWeek || 'any' }}</td>
                   <td>{{ formatHours(r) }}</td>
                   <td>{{ formatLead(r) }}</td>
+                  <td>{{ formatOccupancy(r) }}</td>
                   <td class="mul" [class.up]="r.multiplier > 1" [class.down]="r.multiplier < 1">
                     ×{{ r.multiplier | number:'1.2-3' }}
                   </td>
@@ -117,6 +118,14 @@ import { PricingRule, PricingRuleService } from '../../core/services/pricing-rul
                 <input type="number" name="maxLeadTimeHours" [(ngModel)]="editing()!.maxLeadTimeHours" min="0" max="10000" />
               </label>
             </div>
+            <div class="row">
+              <label>Min occupancy (% sold)
+                <input type="number" name="minOccupancyPercent" [(ngModel)]="editing()!.minOccupancyPercent" min="0" max="100" />
+              </label>
+              <label>Max occupancy (% sold)
+                <input type="number" name="maxOccupancyPercent" [(ngModel)]="editing()!.maxOccupancyPercent" min="0" max="100" />
+              </label>
+            </div>
             <label>Multiplier (0.10 – 5.00)
               <input type="number" name="multiplier" [(ngModel)]="editing()!.multiplier" min="0.1" max="5" step="0.01" required />
             </label>
@@ -213,6 +222,8 @@ export class PricingRulesComponent implements OnInit {
       endHour: null,
       minLeadTimeHours: null,
       maxLeadTimeHours: null,
+      minOccupancyPercent: null,
+      maxOccupancyPercent: null,
       multiplier: 1.0
     });
   }
@@ -292,4 +303,12 @@ export class PricingRulesComponent implements OnInit {
     if (r.maxLeadTimeHours != null) parts.push(`≤${r.maxLeadTimeHours}h`);
     return parts.join(' ');
   }
+
+  formatOccupancy(r: PricingRule): string {
+    if (r.minOccupancyPercent == null && r.maxOccupancyPercent == null) return 'any';
+    const parts: string[] = [];
+    if (r.minOccupancyPercent != null) parts.push(`≥${r.minOccupancyPercent}%`);
+    if (r.maxOccupancyPercent != null) parts.push(`≤${r.maxOccupancyPercent}%`);
+    return parts.join(' ');
+  }
 }
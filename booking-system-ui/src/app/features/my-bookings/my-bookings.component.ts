@@ -95,6 +95,13 @@ type Tab = 'upcoming' | 'past';
             </div>
           }
         </div>
+        @if (nextCursor) {
+          <div class="load-more">
+            <button class="btn btn-outline" (click)="loadMore()" [disabled]="loadingMore">
+              {{ loadingMore ? 'Loading...' : 'Load older bookings' }}
+            </button>
+          </div>
+        }
       }
 
       <!-- Cancel Confirmation Modal -->
@@ -173,6 +180,7 @@ type Tab = 'upcoming' | 'past';
       &.small { padding: 40px 20px; }
     }
     .bookings-list { display: flex; flex-direction: column; gap: 16px; }
+    .load-more { text-align: center; margin-top: 24px; }
     .booking-card { padding: 24px; }
     .booking-main { display: flex; justify-content: space-between; align-items: flex-start; gap: 16px; }
     .booking-info {
@@ -258,6 +266,8 @@ type Tab = 'upcoming' | 'past';
 export class MyBookingsComponent implements OnInit {
   bookings: BookingResponse[] = [];
   loading = true;
+  nextCursor: string | null = null;
+  loadingMore = false;
   activeTab: Tab = 'upcoming';
 
   cancelTarget: BookingResponse | null = null;
@@ -273,18 +283,37 @@ export class MyBookingsComponent implements OnInit {
 
   loadBookings() {
     this.loading = true;
-    this.bookingService.getMyBookings().subscribe({
-      next: (b) => {
-        this.bookings = (b || []).sort((x, y) =>
-          new Date(y.showStartTime || y.startTime || y.createdAt).getTime() -
-          new Date(x.showStartTime || x.startTime || x.createdAt).getTime()
-        );
+    this.bookingService.getMyBookingsPage().subscribe({
+      next: (page) => {
+        this.bookings = this.sortByShowTime(page.bookings);
+        this.nextCursor = page.nextCursor;
         this.loading = false;
       },
       error: () => { this.loading = false; }
     });
   }
 
+  /** Appends the next (older) page of bookings. */
+  loadMore() {
+    if (!this.nextCursor || this.loadingMore) return;
+    this.loadingMore = true;
+    this.bookingService.getMyBookingsPage(this.nextCursor).subscribe({
+      next: (page) => {
+        this.bookings = this.sortByShowTime(this.bookings.concat(page.bookings));
+        this.nextCursor = page.nextCursor;
+        this.loadingMore = false;
+      },
+      error: () => { this.loadingMore = false; }
+    });
+  }
+
+  private sortByShowTime(bookings: BookingResponse[]): BookingResponse[] {
+    return bookings.sort((x, y) =>
+      new Date(y.showStartTime || y.startTime || y.createdAt).getTime() -
+      new Date(x.showStartTime || x.startTime || x.createdAt).getTime()
+    );
+  }
+
   get upcomingBookings(): BookingResponse[] {
     const now = Date.now();
     return this.bookings.filter(b => {
@@ -493,7 +493,7 @@ export class SeatSelectionComponent implements OnInit, OnDestroy {
       next: (res) => {
         if (res.success) {
           this.startTimer(8 * 60);
-          this.bookingService.bookShowSeats(this.showId, seatIds, undefined, addOnLines).subscribe({
+          this.bookingService.bookShowSeats(this.showId, seatIds, undefined, addOnLines, res.quote?.token).subscribe({
             next: (booking) => {
               this.router.navigate(['/booking/summary'], {
                 queryParams: {
@@ -0,0 +1,46 @@
+package com.mishraachandan.booking_system.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Schedulers for {@code @Scheduled} jobs.
+ *
+ * Seat-lock and payment deadlines are checked every second and must not
+ * wait behind the sweeps, outbox relay, counter reconciliation and purges,
+ * so they run on their own {@link #DEADLINE_SCHEDULER} pool. Everything else
+ * shares {@code taskScheduler}, which Spring picks as the default because of
+ * its name; declaring it here replaces Spring Boot's single-thread one.
+ */
+@Configuration
+public class SchedulingConfig {
+
+    /** Scheduler name for deadline ticks: {@code @Scheduled(scheduler = DEADLINE_SCHEDULER)}. */
+    public static final String DEADLINE_SCHEDULER = "deadlineScheduler";
+
+    @Value("${scheduling.pool-size:4}")
+    private int poolSize;
+
+    @Value("${scheduling.deadline-pool-size:2}")
+    private int deadlinePoolSize;
+
+    @Bean
+    public ThreadPoolTaskScheduler taskScheduler() {
+        return scheduler(poolSize, "scheduling-");
+    }
+
+    @Bean(name = DEADLINE_SCHEDULER)
+    public ThreadPoolTaskScheduler deadlineScheduler() {
+        return scheduler(deadlinePoolSize, "deadline-");
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(int size, String threadNamePrefix) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(Math.max(1, size));
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.setWaitForTasksToCompleteOnShutdown(false);
+        return scheduler;
+    }
+}
@@ -72,9 +72,13 @@ public class SecurityConfig {
                             "Accept",
                             "Origin",
                             "X-Requested-With",
-                            "X-Trace-Id"
+                            "X-Trace-Id",
+                            "If-None-Match",
+                            "X-Queue-Token",
+                            "Idempotency-Key"
                     ));
-                    corsConfig.setExposedHeaders(java.util.List.of("X-Trace-Id"));
+                    corsConfig.setExposedHeaders(java.util.List.of("X-Trace-Id", "ETag", "X-Seat-Map-Version", "X-Next-Cursor",
+                            "Idempotent-Replayed"));
                     corsConfig.setAllowCredentials(true);
                     corsConfig.setMaxAge(3600L);
                     return corsConfig;
@@ -102,13 +106,15 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST,
                                 "/api/bookings/**",
                                 "/api/v1/shows/*/seats/lock",
+                                "/api/v1/shows/*/seats/best-available",
+                                "/api/v1/shows/*/queue/join",
                                 "/api/payments/**"
                         ).hasRole("USER")
                         // Payment status reads — authenticated
                         .requestMatchers(HttpMethod.GET, "/api/payments/**").authenticated()
                         // Creating shows — require ADMIN role
-                        .requestMatchers(HttpMethod.POST, "/api/v1/shows").hasRole("ADMIN")
-                        // Admin analytics + dynamic-pricing management — ADMIN only
+                        .requestMatchers(HttpMethod.POST, "/api/v1/shows", "/api/v1/shows/bulk").hasRole("ADMIN")
+                        // Admin analytics, dynamic pricing, show admission queues — ADMIN only
                         .requestMatchers("/api/v1/admin/**").hasRole("ADMIN")
                         // Everything else — authenticated
                         .anyRequest().authenticated()
@@ -0,0 +1,53 @@
+package com.mishraachandan.booking_system.controller;
+
+import com.mishraachandan.booking_system.dto.entity.AddOn;
+import com.mishraachandan.booking_system.dto.pojo.AddOnRequest;
+import com.mishraachandan.booking_system.service.AddOnService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Admin management of the add-on catalogue. Admin-only via the
+ * {@code /api/v1/admin/**} security matcher. Every change refreshes the
+ * cached catalogue used by the public menu and checkout.
+ */
+@RestController
+@RequestMapping("/api/v1/admin/addons")
+@RequiredArgsConstructor
+public class AddOnAdminController {
+
+    private final AddOnService addOnService;
+
+    @GetMapping
+    public ResponseEntity<List<AddOn>> list() {
+        return ResponseEntity.ok(addOnService.getAllAddOns());
+    }
+
+    @PostMapping
+    public ResponseEntity<AddOn> create(@Valid @RequestBody AddOnRequest req) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(addOnService.createAddOn(req));
+    }
+
+    @PutMapping("/{id}")
+    public ResponseEntity<AddOn> update(@PathVariable Long id, @Valid @RequestBody AddOnRequest req) {
+        try {
+            return ResponseEntity.ok(addOnService.updateAddOn(id, req));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/{id}/availability")
+    public ResponseEntity<AddOn> setAvailable(@PathVariable Long id, @RequestParam boolean available) {
+        try {
+            return ResponseEntity.ok(addOnService.setAvailable(id, available));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
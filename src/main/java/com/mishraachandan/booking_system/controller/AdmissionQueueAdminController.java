@@ -0,0 +1,40 @@
+package com.mishraachandan.booking_system.controller;
+
+import com.mishraachandan.booking_system.service.AdmissionQueueService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Admin switch for a show's admission queue (virtual waiting room).
+ * Admin-only via the {@code /api/v1/admin/**} security matcher.
+ *
+ * The flag is stored on the show. The node handling the PUT applies it
+ * once committed; other nodes pick it up within 10 seconds, and until then
+ * {@code GET} on them may still report the old value. The queue itself is
+ * kept per node (see {@code AdmissionQueueService}).
+ */
+@RestController
+@RequestMapping("/api/v1/admin/shows")
+@RequiredArgsConstructor
+public class AdmissionQueueAdminController {
+
+    private final AdmissionQueueService admissionQueueService;
+
+    @GetMapping("/{showId}/queue")
+    public ResponseEntity<Map<String, Object>> status(@PathVariable Long showId) {
+        return ResponseEntity.ok(Map.of("showId", showId, "enabled", admissionQueueService.isEnabled(showId)));
+    }
+
+    @PutMapping("/{showId}/queue")
+    public ResponseEntity<Map<String, Object>> toggle(@PathVariable Long showId, @RequestParam boolean enabled) {
+        try {
+            admissionQueueService.setEnabled(showId, enabled);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("showId", showId, "enabled", enabled));
+    }
+}
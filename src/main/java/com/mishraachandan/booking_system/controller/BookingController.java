@@ -2,25 +2,42 @@ package com.mishraachandan.booking_system.controller;
 
 import com.mishraachandan.booking_system.config.AuthenticatedUser;
 import com.mishraachandan.booking_system.dto.entity.Booking;
+import com.mishraachandan.booking_system.dto.pojo.BookingPage;
 import com.mishraachandan.booking_system.dto.pojo.BookingRequest;
 import com.mishraachandan.booking_system.dto.pojo.BookingResponse;
+import com.mishraachandan.booking_system.dto.pojo.BookingTicketResponse;
 import com.mishraachandan.booking_system.dto.pojo.ShowSeatBookingRequest;
+import com.mishraachandan.booking_system.service.BookingPipelineService;
 import com.mishraachandan.booking_system.service.BookingService;
+import com.mishraachandan.booking_system.service.IdempotencyService;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/bookings")
 public class BookingController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final IdempotencyService idempotencyService;
+    private final BookingPipelineService bookingPipelineService;
 
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService,
+                             IdempotencyService idempotencyService,
+                             BookingPipelineService bookingPipelineService) {
         this.bookingService = bookingService;
+        this.idempotencyService = idempotencyService;
+        this.bookingPipelineService = bookingPipelineService;
     }
 
     /**
@@ -39,14 +56,60 @@ public class BookingController {
     /**
      * Book specific ShowSeats for a show.
      * Seats must be locked first via /api/v1/shows/{showId}/seats/lock.
+     * Retries sent with the same {@code Idempotency-Key} get the original
+     * response back instead of booking again.
      */
     @PostMapping("/show-seats")
-    public ResponseEntity<BookingResponse> bookShowSeats(
+    public ResponseEntity<?> bookShowSeats(
             @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody ShowSeatBookingRequest request) {
 
-        Booking booking = bookingService.bookShowSeats(principal.getUserId(), request);
-        return ResponseEntity.ok(BookingResponse.fromBooking(booking));
+        return idempotencyService.execute(principal.getUserId(), "bookings.show-seats", idempotencyKey, request,
+                () -> {
+                    Booking booking = bookingService.bookShowSeats(principal.getUserId(), request);
+                    return ResponseEntity.ok(BookingResponse.fromBooking(booking));
+                });
+    }
+
+    /**
+     * Asynchronous variant of {@code /show-seats} for peak load: queues the
+     * booking and answers 202 with a ticket right away. Follow the Location
+     * header (or {@code /tickets/{ticketId}/stream}) for the result.
+     * Answers 503 when the booking pipeline is full.
+     */
+    @PostMapping("/show-seats/async")
+    public ResponseEntity<BookingTicketResponse> submitShowSeatBooking(
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @Valid @RequestBody ShowSeatBookingRequest request) {
+
+        BookingTicketResponse ticket = bookingPipelineService.submit(principal.getUserId(), request);
+        if (ticket == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "2")
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/bookings/tickets/" + ticket.getTicketId()))
+                .body(ticket);
+    }
+
+    @GetMapping("/tickets/{ticketId}")
+    public ResponseEntity<BookingTicketResponse> getBookingTicket(
+            @PathVariable String ticketId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        BookingTicketResponse ticket = bookingPipelineService.status(ticketId, principal.getUserId());
+        return ticket == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(ticket);
+    }
+
+    @GetMapping(value = "/tickets/{ticketId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBookingTicket(
+            @PathVariable String ticketId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+
+        SseEmitter emitter = bookingPipelineService.stream(ticketId, principal.getUserId());
+        return emitter == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(emitter);
     }
 
     /**
@@ -64,14 +127,22 @@ public class BookingController {
     }
 
     /**
-     * Get all bookings for the authenticated user (flat DTO — no lazy loading).
+     * Get the authenticated user's bookings, newest first (flat DTO — no lazy loading).
+     * Paged by keyset: when more bookings exist the response carries an
+     * {@code X-Next-Cursor} header; pass it back as {@code cursor}.
      */
     @GetMapping("/my")
     public ResponseEntity<List<BookingResponse>> getMyBookings(
-            @AuthenticationPrincipal AuthenticatedUser principal) {
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
 
-        List<BookingResponse> bookings = bookingService.getUserBookingsFlat(principal.getUserId());
-        return ResponseEntity.ok(bookings);
+        BookingPage page = bookingService.getUserBookingsPage(principal.getUserId(), cursor, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 
     /**
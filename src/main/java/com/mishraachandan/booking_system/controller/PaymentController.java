@@ -4,6 +4,7 @@ import com.mishraachandan.booking_system.config.AuthenticatedUser;
 import com.mishraachandan.booking_system.dto.entity.Booking;
 import com.mishraachandan.booking_system.dto.entity.Payment;
 import com.mishraachandan.booking_system.dto.pojo.BookingResponse;
+import com.mishraachandan.booking_system.service.IdempotencyService;
 import com.mishraachandan.booking_system.service.PaymentService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,9 +17,11 @@ import java.util.Map;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
+        this.idempotencyService = idempotencyService;
     }
 
     /**
@@ -27,10 +30,13 @@ public class PaymentController {
      *
      * POST /api/payments/create-order
      * Body: { "bookingId": 123 }
+     * Header (optional): Idempotency-Key — retries with the same key return the
+     * original order instead of creating another Payment / Razorpay order.
      */
     @PostMapping("/create-order")
     public ResponseEntity<?> createOrder(
             @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @RequestBody Map<String, Long> body) {
 
         Long bookingId = body.get("bookingId");
@@ -38,16 +44,19 @@ public class PaymentController {
             return ResponseEntity.badRequest().body(Map.of("error", "bookingId is required"));
         }
 
-        try {
-            Map<String, Object> orderDetails = paymentService.createOrder(bookingId, principal.getUserId());
-            return ResponseEntity.ok(orderDetails);
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
-        } catch (IllegalStateException e) {
-            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
-        } catch (SecurityException e) {
-            return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
-        }
+        return idempotencyService.execute(principal.getUserId(), "payments.create-order", idempotencyKey, body,
+                () -> {
+                    try {
+                        Map<String, Object> orderDetails = paymentService.createOrder(bookingId, principal.getUserId());
+                        return ResponseEntity.ok(orderDetails);
+                    } catch (IllegalArgumentException e) {
+                        return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+                    } catch (IllegalStateException e) {
+                        return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+                    } catch (SecurityException e) {
+                        return ResponseEntity.status(403).body(Map.of("error", e.getMessage()));
+                    }
+                });
     }
 
     /**
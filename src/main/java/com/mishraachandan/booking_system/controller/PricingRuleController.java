@@ -2,9 +2,12 @@ package com.mishraachandan.booking_system.controller;
 
 import com.mishraachandan.booking_system.dto.entity.PricingRule;
 import com.mishraachandan.booking_system.dto.pojo.PriceBreakdown;
+import com.mishraachandan.booking_system.dto.pojo.PricingBacktestRequest;
+import com.mishraachandan.booking_system.dto.pojo.PricingBacktestResponse;
 import com.mishraachandan.booking_system.dto.pojo.PricingRuleRequest;
 import com.mishraachandan.booking_system.dto.pojo.PricingRuleResponse;
 import com.mishraachandan.booking_system.repository.PricingRuleRepository;
+import com.mishraachandan.booking_system.service.PricingBacktestService;
 import com.mishraachandan.booking_system.service.PricingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +16,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 
@@ -21,15 +27,19 @@ import java.util.Map;
  * Admin CRUD for dynamic pricing rules. Admin-only via {@code /api/v1/admin/**}
  * security matcher. A read-only "preview" endpoint is also exposed here so the
  * admin UI can show what a rule does against a base price without having to
- * create a booking.
+ * create a booking. {@code /backtest} replays a rule set over past bookings.
  */
 @RestController
 @RequestMapping("/api/v1/admin/pricing")
 @RequiredArgsConstructor
 public class PricingRuleController {
 
+    // A year of bookings plus slack
+    private static final long MAX_BACKTEST_DAYS = 400;
+
     private final PricingRuleRepository pricingRuleRepository;
     private final PricingService pricingService;
+    private final PricingBacktestService pricingBacktestService;
 
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> status() {
@@ -54,19 +64,8 @@ public class PricingRuleController {
 
     @PostMapping("/rules")
     public ResponseEntity<PricingRuleResponse> create(@Valid @RequestBody PricingRuleRequest req) {
-        PricingRule rule = PricingRule.builder()
-                .name(req.getName())
-                .description(req.getDescription())
-                .active(req.getActive() == null ? Boolean.TRUE : req.getActive())
-                .priority(req.getPriority() == null ? 100 : req.getPriority())
-                .daysOfWeek(blankToNull(req.getDaysOfWeek()))
-                .startHour(req.getStartHour())
-                .endHour(req.getEndHour())
-                .minLeadTimeHours(req.getMinLeadTimeHours())
-                .maxLeadTimeHours(req.getMaxLeadTimeHours())
-                .multiplier(req.getMultiplier() == null ? BigDecimal.ONE : req.getMultiplier())
-                .build();
-        PricingRule saved = pricingRuleRepository.save(rule);
+        PricingRule saved = pricingRuleRepository.save(toEntity(req));
+        pricingService.reloadRules();
         return ResponseEntity.status(HttpStatus.CREATED).body(PricingRuleResponse.fromEntity(saved));
     }
 
@@ -83,8 +82,11 @@ public class PricingRuleController {
             rule.setEndHour(req.getEndHour());
             rule.setMinLeadTimeHours(req.getMinLeadTimeHours());
             rule.setMaxLeadTimeHours(req.getMaxLeadTimeHours());
+            rule.setMinOccupancyPercent(req.getMinOccupancyPercent());
+            rule.setMaxOccupancyPercent(req.getMaxOccupancyPercent());
             if (req.getMultiplier() != null) rule.setMultiplier(req.getMultiplier());
             PricingRule saved = pricingRuleRepository.save(rule);
+            pricingService.reloadRules();
             return ResponseEntity.ok(PricingRuleResponse.fromEntity(saved));
         }).orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -95,21 +97,71 @@ public class PricingRuleController {
             return ResponseEntity.notFound().build();
         }
         pricingRuleRepository.deleteById(id);
+        pricingService.reloadRules();
         return ResponseEntity.noContent().build();
     }
 
     /**
      * Compute effective price for {@code basePrice} if the show started at
-     * {@code showStart}, evaluated at {@code at} (defaults to now). Useful for
-     * previewing a rule's effect in the admin UI.
+     * {@code showStart}, evaluated at {@code at} (defaults to now) with the
+     * show {@code occupancyPercent} full. Useful for previewing a rule's effect
+     * in the admin UI; without {@code occupancyPercent}, occupancy rules don't
+     * match.
      */
     @GetMapping("/preview")
     public ResponseEntity<PriceBreakdown> preview(
             @RequestParam BigDecimal basePrice,
             @RequestParam LocalDateTime showStart,
-            @RequestParam(required = false) LocalDateTime at) {
-        return ResponseEntity.ok(
-                pricingService.resolve(basePrice, showStart, at == null ? LocalDateTime.now() : at));
+            @RequestParam(required = false) LocalDateTime at,
+            @RequestParam(required = false) Integer occupancyPercent) {
+        int occupancy = occupancyPercent == null ? PricingService.UNKNOWN_OCCUPANCY
+                : Math.max(0, Math.min(100, occupancyPercent));
+        return ResponseEntity.ok(pricingService.resolve(basePrice, showStart,
+                at == null ? LocalDateTime.now() : at, occupancy));
+    }
+
+    /**
+     * What a rule set would have done to seat revenue over past CONFIRMED
+     * bookings created between {@code from} and {@code to} (inclusive, default
+     * the last 30 days, at most {@link #MAX_BACKTEST_DAYS}). Replays the
+     * candidate {@code rules} from the body, or the active rules when absent.
+     * Nothing is saved. 409 while another backtest is running.
+     */
+    @PostMapping("/backtest")
+    public ResponseEntity<?> backtest(@Valid @RequestBody PricingBacktestRequest req) {
+        LocalDate to = req.getTo() != null ? req.getTo() : LocalDate.now();
+        LocalDate from = req.getFrom() != null ? req.getFrom() : to.minusDays(30);
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) > MAX_BACKTEST_DAYS) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "from must not be after to, and the window can span at most " + MAX_BACKTEST_DAYS + " days"));
+        }
+        List<PricingRule> candidates = req.getRules() == null
+                ? null
+                : req.getRules().stream().map(PricingRuleController::toEntity).toList();
+        PricingBacktestResponse result =
+                pricingBacktestService.run(from.atStartOfDay(), to.atTime(LocalTime.MAX), candidates);
+        if (result == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message",
+                    "A backtest is already running; try again when it has finished"));
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    private static PricingRule toEntity(PricingRuleRequest req) {
+        return PricingRule.builder()
+                .name(req.getName())
+                .description(req.getDescription())
+                .active(req.getActive() == null ? Boolean.TRUE : req.getActive())
+                .priority(req.getPriority() == null ? 100 : req.getPriority())
+                .daysOfWeek(blankToNull(req.getDaysOfWeek()))
+                .startHour(req.getStartHour())
+                .endHour(req.getEndHour())
+                .minLeadTimeHours(req.getMinLeadTimeHours())
+                .maxLeadTimeHours(req.getMaxLeadTimeHours())
+                .minOccupancyPercent(req.getMinOccupancyPercent())
+                .maxOccupancyPercent(req.getMaxOccupancyPercent())
+                .multiplier(req.getMultiplier() == null ? BigDecimal.ONE : req.getMultiplier())
+                .build();
     }
 
     private static String blankToNull(String s) {
@@ -2,18 +2,36 @@ package com.mishraachandan.booking_system.controller;
 
 import com.mishraachandan.booking_system.config.AuthenticatedUser;
 import com.mishraachandan.booking_system.dto.entity.Show;
-import com.mishraachandan.booking_system.dto.entity.ShowSeat;
+import com.mishraachandan.booking_system.dto.pojo.BulkCreateShowsRequest;
 import com.mishraachandan.booking_system.dto.pojo.CreateShowRequest;
 import com.mishraachandan.booking_system.dto.pojo.LockSeatsRequest;
+import com.mishraachandan.booking_system.dto.pojo.QueueTicketResponse;
+import com.mishraachandan.booking_system.dto.pojo.SeatPriceQuote;
+import com.mishraachandan.booking_system.dto.pojo.SeatMapDelta;
 import com.mishraachandan.booking_system.dto.pojo.ShowSeatResponse;
+import com.mishraachandan.booking_system.dto.status.SeatType;
+import com.mishraachandan.booking_system.service.AdmissionQueueService;
+import com.mishraachandan.booking_system.service.PriceQuoteService;
 import com.mishraachandan.booking_system.service.ShowSeatLockService;
 import com.mishraachandan.booking_system.service.ShowService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,8 +40,19 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ShowController {
 
+    // Compact seat-map representations, selected with the Accept header
+    private static final String SEAT_MAP_JSON = "application/vnd.booking.seatmap+json";
+    private static final String SEAT_STATUS_BINARY = "application/vnd.booking.seat-status";
+    private static final String SEAT_MAP_VERSION_HEADER = "X-Seat-Map-Version";
+    private static final String QUEUE_TOKEN_HEADER = "X-Queue-Token";
+    private static final int MAX_SHOWS_PER_BATCH = 500;
+    // Same cap as LockSeatsRequest.showSeatIds
+    private static final int MAX_SEATS_PER_LOCK = 20;
+
     private final ShowService showService;
     private final ShowSeatLockService showSeatLockService;
+    private final AdmissionQueueService admissionQueueService;
+    private final PriceQuoteService priceQuoteService;
 
     /**
      * Get all shows, optionally filtered by city.
@@ -36,6 +65,35 @@ public class ShowController {
         return ResponseEntity.ok(showService.getAllShows());
     }
 
+    /**
+     * Seat counts (total / available / locked / booked) for many shows in one
+     * call, for "fast filling" / "sold out" badges on listing pages.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<?> getAvailability(@RequestParam List<Long> showIds) {
+        if (showIds.size() > MAX_SHOWS_PER_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "At most " + MAX_SHOWS_PER_BATCH + " showIds per request"));
+        }
+        return ResponseEntity.ok(showSeatLockService.getAvailability(showIds));
+    }
+
+    /**
+     * Current seat prices, with dynamic pricing applied, for one or many shows
+     * in one call: one multiplier per show plus the effective price of each
+     * (seat type, base price) on its seat map.
+     */
+    @GetMapping("/quotes")
+    public ResponseEntity<?> getPriceQuotes(@RequestParam List<Long> showIds) {
+        if (showIds.size() > MAX_SHOWS_PER_BATCH) {
+            return ResponseEntity.badRequest().body(Map.of("message",
+                    "At most " + MAX_SHOWS_PER_BATCH + " showIds per request"));
+        }
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .body(priceQuoteService.quote(showIds.stream().distinct().toList()));
+    }
+
     /**
      * Get shows by movie ID.
      */
@@ -45,42 +103,173 @@ public class ShowController {
     }
 
     /**
-     * Get all seats for a show as a flat DTO (no lazy loading, no circular refs).
+     * Get all seats for a show. Representation is chosen by the Accept header:
+     * <ul>
+     *   <li>{@code application/json} (default) — flat DTO list, one row per seat;</li>
+     *   <li>{@code application/vnd.booking.seatmap+json} — compact columnar seat
+     *       map: show metadata once, parallel seat arrays, type/status as ordinals;</li>
+     *   <li>{@code application/vnd.booking.seat-status} — statuses only, packed
+     *       2 bits per seat in seat-map order behind a 12-byte header
+     *       (showId, seat count), for clients that already hold the layout.</li>
+     * </ul>
+     * Negotiated here rather than with {@code produces} so that clients
+     * sending {@code *}{@code /*} keep getting the original JSON list.
+     *
+     * Every response carries the seat-map version as an ETag (and in
+     * {@code X-Seat-Map-Version}); a matching {@code If-None-Match} gets a 304
+     * without the seat map being rendered. With {@code ?sinceVersion=N} only
+     * the seats changed since version N are returned, as a {@link SeatMapDelta}.
      */
     @GetMapping("/{showId}/seats")
-    public ResponseEntity<List<ShowSeatResponse>> getShowSeats(@PathVariable Long showId) {
-        return ResponseEntity.ok(showSeatLockService.getAllShowSeatResponses(showId));
+    public ResponseEntity<?> getShowSeats(@PathVariable Long showId,
+                                          @RequestParam(required = false) Long sinceVersion,
+                                          @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                          WebRequest webRequest) {
+        long version = showSeatLockService.getSeatMapVersion(showId);
+        if (sinceVersion != null) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .header(SEAT_MAP_VERSION_HEADER, Long.toString(version))
+                    .body(showSeatLockService.getSeatMapChanges(showId, sinceVersion));
+        }
+
+        String representation = negotiateSeatMap(accept);
+        // Representations differ byte-wise, so each gets its own strong ETag
+        String suffix = representation == null ? "" : SEAT_MAP_JSON.equals(representation) ? "-c" : "-b";
+        String eTag = "\"" + version + suffix + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .header(SEAT_MAP_VERSION_HEADER, Long.toString(version));
+        if (SEAT_STATUS_BINARY.equals(representation)) {
+            return response.contentType(MediaType.parseMediaType(SEAT_STATUS_BINARY))
+                    .body(showSeatLockService.getPackedSeatStatuses(showId));
+        }
+        if (SEAT_MAP_JSON.equals(representation)) {
+            return response.contentType(MediaType.parseMediaType(SEAT_MAP_JSON))
+                    .body(showSeatLockService.getSeatMap(showId));
+        }
+        return response.body(showSeatLockService.getAllShowSeatResponses(showId));
     }
 
     /**
-     * Get only available seats for a show.
+     * Get only available seats for a show (same flat DTO as the full seat map).
      */
     @GetMapping("/{showId}/seats/available")
-    public ResponseEntity<List<ShowSeat>> getAvailableShowSeats(@PathVariable Long showId) {
+    public ResponseEntity<List<ShowSeatResponse>> getAvailableShowSeats(@PathVariable Long showId) {
         return ResponseEntity.ok(showSeatLockService.getAvailableShowSeats(showId));
     }
 
+    /**
+     * Live seat-status deltas for a show as Server-Sent Events ("seat-status"
+     * events carrying a SeatStatusEvent). Clients load the seat map once and
+     * apply these deltas instead of polling it. 429 once the show, or the
+     * caller's IP, has as many open streams as allowed.
+     */
+    @GetMapping(value = "/{showId}/seats/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSeatStatus(@PathVariable Long showId, HttpServletRequest httpRequest) {
+        SseEmitter emitter = showSeatLockService.streamSeatStatus(showId, clientIp(httpRequest));
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Join a show's admission queue (only meaningful while the show's queue
+     * is enabled; otherwise the returned ticket is admitted immediately).
+     */
+    @PostMapping("/{showId}/queue/join")
+    public ResponseEntity<QueueTicketResponse> joinQueue(
+            @PathVariable Long showId,
+            @AuthenticationPrincipal AuthenticatedUser principal) {
+        return ResponseEntity.ok(admissionQueueService.join(showId, principal.getUserId()));
+    }
+
+    /**
+     * Poll a queue ticket's position / admission. Waiting clients should poll
+     * every few seconds; tickets that stop polling lose their place.
+     */
+    @GetMapping("/{showId}/queue/status")
+    public ResponseEntity<QueueTicketResponse> queueStatus(@PathVariable Long showId,
+                                                          @RequestParam String token) {
+        try {
+            return ResponseEntity.ok(admissionQueueService.status(showId, token));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     /**
      * Lock seats for a user (temporary hold).
      * userId is extracted from the JWT via @AuthenticationPrincipal.
+     * While the show's admission queue is on, the caller must present an
+     * admitted ticket in {@code X-Queue-Token}; anyone else is turned away
+     * here, before any seat or database work.
+     * A successful lock carries a {@link SeatPriceQuote} ("quote"): the seat
+     * prices, and a token that holds them for the booking.
      */
     @PostMapping("/{showId}/seats/lock")
     public ResponseEntity<Map<String, Object>> lockSeats(
             @PathVariable Long showId,
             @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestHeader(value = QUEUE_TOKEN_HEADER, required = false) String queueToken,
             @Valid @RequestBody LockSeatsRequest request) {
 
-        boolean success = showSeatLockService.lockShowSeats(request.getShowSeatIds(), principal.getUserId());
+        if (!admissionQueueService.isAdmitted(showId, queueToken, principal.getUserId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("success", false, "queued", true, "message",
+                            "This show is in high demand. Join the queue and retry once admitted."));
+        }
+
+        boolean success = showSeatLockService.lockShowSeats(showId, request.getShowSeatIds(), principal.getUserId());
 
         if (success) {
-            return ResponseEntity.ok(Map.of("success", true, "message",
-                    "Seats locked successfully. You have 8 minutes to complete booking."));
+            return ResponseEntity.ok(lockedResponse(showId, request.getShowSeatIds(), principal.getUserId()));
         } else {
             return ResponseEntity.badRequest()
                     .body(Map.of("success", false, "message", "One or more seats are not available"));
         }
     }
 
+    /**
+     * Pick and lock the best contiguous block of {@code count} seats in one
+     * call, optionally restricted to one seat type. Same admission-queue gate
+     * and 8-minute hold (and price quote) as a manual lock.
+     */
+    @PostMapping("/{showId}/seats/best-available")
+    public ResponseEntity<Map<String, Object>> lockBestAvailable(
+            @PathVariable Long showId,
+            @RequestParam int count,
+            @RequestParam(required = false) SeatType seatType,
+            @AuthenticationPrincipal AuthenticatedUser principal,
+            @RequestHeader(value = QUEUE_TOKEN_HEADER, required = false) String queueToken) {
+
+        if (count < 1 || count > MAX_SEATS_PER_LOCK) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message",
+                    "count must be between 1 and " + MAX_SEATS_PER_LOCK));
+        }
+        if (!admissionQueueService.isAdmitted(showId, queueToken, principal.getUserId())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("success", false, "queued", true, "message",
+                            "This show is in high demand. Join the queue and retry once admitted."));
+        }
+
+        List<Long> locked = showSeatLockService.lockBestAvailable(showId, count, seatType, principal.getUserId());
+        if (locked.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("success", false, "message", "No block of " + count + " adjacent seats is available"));
+        }
+        Map<String, Object> body = lockedResponse(showId, locked, principal.getUserId());
+        body.put("showSeatIds", locked);
+        return ResponseEntity.ok(body);
+    }
+
     /**
      * Unlock a specific seat (user deselects).
      */
@@ -90,6 +279,63 @@ public class ShowController {
         return ResponseEntity.ok().build();
     }
 
+    private Map<String, Object> lockedResponse(Long showId, List<Long> showSeatIds, Long userId) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("success", true);
+        body.put("message", "Seats locked successfully. You have 8 minutes to complete booking.");
+        SeatPriceQuote quote = priceQuoteService.quoteSeats(showId, showSeatIds, userId);
+        if (quote != null) {
+            body.put("quote", quote);
+        }
+        return body;
+    }
+
+    /** Returns the best-effort client IP, respecting X-Forwarded-For. */
+    private static String clientIp(HttpServletRequest request) {
+        String xff = request.getHeader("X-Forwarded-For");
+        if (xff != null && !xff.isBlank()) {
+            int comma = xff.indexOf(',');
+            return (comma > 0 ? xff.substring(0, comma) : xff).trim();
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Compact seat-map type the client prefers, or null for the JSON list.
+     * Accept entries are ranked by q-value, then specificity. A compact type
+     * wins unless an entry plain JSON satisfies ({@code *}{@code /*} included)
+     * has a higher q-value; on a tie the compact type wins, as it was asked
+     * for explicitly. Entries with q=0 are not acceptable.
+     */
+    private static String negotiateSeatMap(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return null;
+        }
+        try {
+            List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+            MimeTypeUtils.sortBySpecificity(accepted);
+            // Stable sort: equal q-values keep their specificity order
+            accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+            double jsonQuality = -1;
+            for (MediaType type : accepted) {
+                double quality = type.getQualityValue();
+                if (quality == 0 || quality < jsonQuality) {
+                    break;
+                }
+                String value = type.getType() + "/" + type.getSubtype();
+                if (SEAT_MAP_JSON.equals(value) || SEAT_STATUS_BINARY.equals(value)) {
+                    return value;
+                }
+                if (jsonQuality < 0 && type.includes(MediaType.APPLICATION_JSON)) {
+                    jsonQuality = quality;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        return null;
+    }
+
     /**
      * Create a new show. Requires ADMIN role (enforced by SecurityConfig).
      */
@@ -97,4 +343,13 @@ public class ShowController {
     public ResponseEntity<Show> createShow(@Valid @RequestBody CreateShowRequest request) {
         return ResponseEntity.ok(showService.createShow(request));
     }
+
+    /**
+     * Create many shows (with their ShowSeats) in one call, e.g. a week's
+     * schedule. All-or-nothing. Requires ADMIN role (enforced by SecurityConfig).
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Show>> createShows(@Valid @RequestBody BulkCreateShowsRequest request) {
+        return ResponseEntity.ok(showService.createShows(request.getShows()));
+    }
 }
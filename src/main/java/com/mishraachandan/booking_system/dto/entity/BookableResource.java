@@ -44,6 +44,12 @@ public class BookableResource {
 
     private Integer capacity = 1;
 
+    // Tickets held by CONFIRMED bookings, maintained with conditional updates
+    // (BookableResourceRepository.reserveTickets / releaseTickets). NULL only on
+    // rows created before the column existed; backfilled on startup.
+    @Column(name = "reserved_tickets")
+    private Integer reservedTickets = 0;
+
     private String location;
 
     @Column(name = "is_active")
@@ -117,6 +123,14 @@ public class BookableResource {
         this.capacity = capacity;
     }
 
+    public Integer getReservedTickets() {
+        return reservedTickets;
+    }
+
+    public void setReservedTickets(Integer reservedTickets) {
+        this.reservedTickets = reservedTickets;
+    }
+
     public String getLocation() {
         return location;
     }
@@ -0,0 +1,34 @@
+package com.mishraachandan.booking_system.dto.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+/**
+ * Payment deadline of an AWAITING_PAYMENT booking. Rows are the persistent
+ * side of the in-memory deadline wheel in {@code PaymentDeadlineService}:
+ * written with the booking, reloaded on startup and deleted once the
+ * deadline has been handled, so the table only holds pending deadlines.
+ */
+@Entity
+@Table(name = "booking_deadlines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingDeadline {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "due_at", nullable = false)
+    private LocalDateTime dueAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
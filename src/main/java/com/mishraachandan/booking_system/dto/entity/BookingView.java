@@ -0,0 +1,107 @@
+package com.mishraachandan.booking_system.dto.entity;
+
+import com.mishraachandan.booking_system.dto.status.BookingStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model behind "My bookings": one row per booking with
+ * everything {@code BookingResponse} shows, so a page of history is a single
+ * range scan on {@code (user_id, created_at, booking_id)}.
+ *
+ * Rows are written only by {@code BookingViewRepository.refresh}, in the same
+ * transaction as every booking change. Show, movie and venue details are a
+ * snapshot taken at that point.
+ */
+@Entity
+@Table(name = "booking_views", indexes = {
+        @Index(name = "idx_booking_views_user_created", columnList = "user_id, created_at, booking_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BookingView {
+
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+
+    @Column(name = "number_of_tickets")
+    private Integer numberOfTickets;
+
+    private String notes;
+
+    @Column(name = "start_time")
+    private LocalDateTime startTime;
+
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "user_first_name")
+    private String userFirstName;
+
+    @Column(name = "user_last_name")
+    private String userLastName;
+
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @Column(name = "show_id")
+    private Long showId;
+
+    @Column(name = "movie_title")
+    private String movieTitle;
+
+    @Column(name = "movie_genre")
+    private String movieGenre;
+
+    @Column(name = "movie_duration_minutes")
+    private Integer movieDurationMinutes;
+
+    @Column(name = "screen_name")
+    private String screenName;
+
+    @Column(name = "cinema_name")
+    private String cinemaName;
+
+    @Column(name = "city_name")
+    private String cityName;
+
+    @Column(name = "show_start_time")
+    private LocalDateTime showStartTime;
+
+    @Column(name = "resource_id")
+    private Long resourceId;
+
+    @Column(name = "resource_name")
+    private String resourceName;
+
+    @Column(name = "seat_total", precision = 12, scale = 2)
+    private BigDecimal seatTotal;
+
+    @Column(name = "add_on_total", precision = 12, scale = 2)
+    private BigDecimal addOnTotal;
+
+    @Column(name = "grand_total", precision = 12, scale = 2)
+    private BigDecimal grandTotal;
+
+    /** JSON array of {@code BookingAddOnResponse}. */
+    @Column(name = "add_ons", columnDefinition = "TEXT")
+    private String addOns;
+
+    @Column(name = "refreshed_at")
+    private LocalDateTime refreshedAt;
+}
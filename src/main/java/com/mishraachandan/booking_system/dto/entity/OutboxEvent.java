@@ -0,0 +1,50 @@
+package com.mishraachandan.booking_system.dto.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A booking lifecycle event, written in the same transaction as the state
+ * change it describes and delivered afterwards by {@code OutboxRelay}.
+ * {@code id} gives the delivery order; {@code publishedAt} is set once every
+ * in-process subscriber has handled the event.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_unpublished", columnList = "published_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    public enum Type {
+        BOOKING_CONFIRMED,
+        BOOKING_CANCELLED,
+        BOOKING_EXPIRED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 32)
+    private Type eventType;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    /** JSON snapshot of the booking at the time of the event. */
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+}
@@ -79,6 +79,17 @@ public class PricingRule {
     @Column(name = "max_lead_time_hours")
     private Integer maxLeadTimeHours;
 
+    /**
+     * Sell-through of the show = booked seats / all seats, in whole percent.
+     * If non-null, the rule only applies when it is ≥ minOccupancyPercent
+     * AND ≤ maxOccupancyPercent.
+     */
+    @Column(name = "min_occupancy_percent")
+    private Integer minOccupancyPercent;
+
+    @Column(name = "max_occupancy_percent")
+    private Integer maxOccupancyPercent;
+
     /**
      * Multiplicative adjustment: effective = base × multiplier.
      * 1.00 = no change, 1.20 = surge +20%, 0.80 = discount -20%.
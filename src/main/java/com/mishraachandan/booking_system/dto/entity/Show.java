@@ -35,6 +35,15 @@ public class Show {
     @Column(name = "end_time", nullable = false)
     private LocalDateTime endTime;
 
+    /**
+     * Admin-toggled waiting room for hot on-sales: when true, seat locks are
+     * only accepted from users admitted by the admission queue. Nullable so
+     * ddl-auto can add the column to existing rows; null means off.
+     */
+    @Column(name = "admission_queue_enabled")
+    @Builder.Default
+    private Boolean admissionQueueEnabled = Boolean.FALSE;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
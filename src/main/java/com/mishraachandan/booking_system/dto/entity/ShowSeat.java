@@ -11,6 +11,9 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "show_seats", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "show_id", "seat_id" })
+}, indexes = {
+        // Booking totals / seat release look seats up by booking
+        @Index(name = "idx_show_seats_booking", columnList = "booking_id")
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,36 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import com.mishraachandan.booking_system.dto.entity.AddOn;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * Admin-facing create/update DTO for {@link AddOn}.
+ */
+@Data
+public class AddOnRequest {
+
+    @NotBlank
+    @Size(max = 255)
+    private String name;
+
+    private String description;
+
+    @NotNull
+    private AddOn.Category category;
+
+    @NotNull
+    @DecimalMin(value = "0.00", message = "price must be ≥ 0")
+    private BigDecimal price;
+
+    @Size(max = 512)
+    private String imageUrl;
+
+    /** Defaults to true on create; unchanged on update when null. */
+    private Boolean available;
+}
@@ -0,0 +1,28 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import com.mishraachandan.booking_system.dto.entity.OutboxEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Spring application event published by {@code OutboxRelay} for every
+ * outbox row, in outbox order. Listen with {@code @EventListener}.
+ *
+ * Delivery is at-least-once: if a listener throws, the event (and the ones
+ * after it) are delivered again on the next relay run, so listeners should
+ * be idempotent — {@code outboxId} is a stable key for that.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingLifecycleEvent {
+    private Long outboxId;
+    private OutboxEvent.Type type;
+    private Long bookingId;
+    // JSON: bookingId, status, userId, showId, resourceId, numberOfTickets
+    private String payload;
+    private LocalDateTime occurredAt;
+}
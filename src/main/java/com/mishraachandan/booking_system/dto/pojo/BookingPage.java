@@ -0,0 +1,20 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a user's booking history, newest first. {@code nextCursor}
+ * is opaque; pass it back as {@code cursor} to get the following page. It
+ * is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingPage {
+    private List<BookingResponse> bookings;
+    private String nextCursor;
+}
@@ -120,6 +120,39 @@ public class BookingResponse {
         return r;
     }
 
+    // Static factory from the booking_views read model ("My bookings")
+    public static BookingResponse fromView(
+            com.mishraachandan.booking_system.dto.entity.BookingView view,
+            List<BookingAddOnResponse> addOns) {
+        BookingResponse r = new BookingResponse();
+        r.bookingId = view.getBookingId();
+        r.status = view.getStatus();
+        r.numberOfTickets = view.getNumberOfTickets();
+        r.notes = view.getNotes();
+        r.startTime = view.getStartTime();
+        r.endTime = view.getEndTime();
+        r.createdAt = view.getCreatedAt();
+        r.userId = view.getUserId();
+        r.userFirstName = view.getUserFirstName();
+        r.userLastName = view.getUserLastName();
+        r.userEmail = view.getUserEmail();
+        r.showId = view.getShowId();
+        r.movieTitle = view.getMovieTitle();
+        r.movieGenre = view.getMovieGenre();
+        r.movieDurationMinutes = view.getMovieDurationMinutes();
+        r.screenName = view.getScreenName();
+        r.cinemaName = view.getCinemaName();
+        r.cityName = view.getCityName();
+        r.showStartTime = view.getShowStartTime();
+        r.resourceId = view.getResourceId();
+        r.resourceName = view.getResourceName();
+        r.seatTotal = view.getSeatTotal();
+        r.addOnTotal = view.getAddOnTotal();
+        r.grandTotal = view.getGrandTotal();
+        r.setAddOns(addOns);
+        return r;
+    }
+
     // Getters
     public Long getBookingId() { return bookingId; }
     public BookingStatus getStatus() { return status; }
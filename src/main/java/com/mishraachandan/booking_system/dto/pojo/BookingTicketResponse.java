@@ -0,0 +1,36 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a show-seat booking submitted through
+ * {@code POST /api/bookings/show-seats/async}. Poll
+ * {@code GET /api/bookings/tickets/{ticketId}} (or stream
+ * {@code /tickets/{ticketId}/stream}) until {@code status} is
+ * {@code SUCCEEDED} — {@code booking} is then set — or {@code FAILED} with
+ * {@code error}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingTicketResponse {
+
+    public enum Status {
+        QUEUED,
+        PROCESSING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String ticketId;
+    private Long showId;
+    private Status status;
+    private BookingResponse booking;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+}
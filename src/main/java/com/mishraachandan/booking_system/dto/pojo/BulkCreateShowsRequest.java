@@ -0,0 +1,26 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for creating many shows at once (e.g. a week's schedule). Capped so a
+ * single request cannot tie up the database for long.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCreateShowsRequest {
+
+    @NotNull
+    @NotEmpty
+    @Size(max = 1000, message = "You can create at most 1000 shows in a single request")
+    private List<@NotNull @Valid CreateShowRequest> shows;
+}
@@ -0,0 +1,25 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Admin request to replay a candidate rule set over past CONFIRMED bookings
+ * created between {@code from} and {@code to} (inclusive; defaults to the
+ * last 30 days). Without {@code rules}, the currently active rules are used.
+ */
+@Data
+public class PricingBacktestRequest {
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    @Valid
+    @Size(max = 100, message = "At most 100 candidate rules per backtest")
+    private List<PricingRuleRequest> rules;
+}
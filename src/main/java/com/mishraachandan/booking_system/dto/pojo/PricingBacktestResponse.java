@@ -0,0 +1,44 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What a rule set would have done to seat revenue over a window of past
+ * CONFIRMED bookings. {@code baseRevenue} is what was charged;
+ * {@code projectedRevenue} is what the rules would have charged.
+ *
+ * Each rule's {@code revenueDelta} is the change it makes on top of the
+ * rules before it in priority order, so the deltas add up to
+ * {@code revenueDelta} (up to per-seat rounding).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingBacktestResponse {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long bookings;
+    private long seats;
+    private BigDecimal baseRevenue;
+    private BigDecimal projectedRevenue;
+    private BigDecimal revenueDelta;
+    private List<RuleImpact> rules;
+    private long elapsedMillis;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RuleImpact {
+        private String name;
+        private BigDecimal multiplier;
+        private long matchedBookings;
+        private long matchedSeats;
+        private BigDecimal revenueDelta;
+    }
+}
@@ -1,5 +1,6 @@
 package com.mishraachandan.booking_system.dto.pojo;
 
+import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Max;
@@ -45,6 +46,13 @@ public class PricingRuleRequest {
     @Min(0) @Max(10_000)
     private Integer maxLeadTimeHours;
 
+    /** Sell-through bounds in whole percent (booked / all seats). Null = any. */
+    @Min(0) @Max(100)
+    private Integer minOccupancyPercent;
+
+    @Min(0) @Max(100)
+    private Integer maxOccupancyPercent;
+
     @DecimalMin(value = "0.100", message = "multiplier must be ≥ 0.100")
     @DecimalMax(value = "5.000", message = "multiplier must be ≤ 5.000")
     private BigDecimal multiplier;
@@ -76,6 +84,19 @@ public class PricingRuleRequest {
     public Integer getMaxLeadTimeHours() { return maxLeadTimeHours; }
     public void setMaxLeadTimeHours(Integer maxLeadTimeHours) { this.maxLeadTimeHours = maxLeadTimeHours; }
 
+    public Integer getMinOccupancyPercent() { return minOccupancyPercent; }
+    public void setMinOccupancyPercent(Integer minOccupancyPercent) { this.minOccupancyPercent = minOccupancyPercent; }
+
+    public Integer getMaxOccupancyPercent() { return maxOccupancyPercent; }
+    public void setMaxOccupancyPercent(Integer maxOccupancyPercent) { this.maxOccupancyPercent = maxOccupancyPercent; }
+
     public BigDecimal getMultiplier() { return multiplier; }
     public void setMultiplier(BigDecimal multiplier) { this.multiplier = multiplier; }
+
+    /** Unlike the hour window, which may wrap past midnight, occupancy bounds cannot be reversed. */
+    @AssertTrue(message = "minOccupancyPercent must not be greater than maxOccupancyPercent")
+    public boolean isOccupancyRangeValid() {
+        return minOccupancyPercent == null || maxOccupancyPercent == null
+                || minOccupancyPercent <= maxOccupancyPercent;
+    }
 }
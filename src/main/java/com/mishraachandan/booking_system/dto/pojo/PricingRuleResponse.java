@@ -17,6 +17,8 @@ public class PricingRuleResponse {
     private Integer endHour;
     private Integer minLeadTimeHours;
     private Integer maxLeadTimeHours;
+    private Integer minOccupancyPercent;
+    private Integer maxOccupancyPercent;
     private BigDecimal multiplier;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -33,6 +35,8 @@ public class PricingRuleResponse {
         out.endHour = r.getEndHour();
         out.minLeadTimeHours = r.getMinLeadTimeHours();
         out.maxLeadTimeHours = r.getMaxLeadTimeHours();
+        out.minOccupancyPercent = r.getMinOccupancyPercent();
+        out.maxOccupancyPercent = r.getMaxOccupancyPercent();
         out.multiplier = r.getMultiplier();
         out.createdAt = r.getCreatedAt();
         out.updatedAt = r.getUpdatedAt();
@@ -49,6 +53,8 @@ public class PricingRuleResponse {
     public Integer getEndHour() { return endHour; }
     public Integer getMinLeadTimeHours() { return minLeadTimeHours; }
     public Integer getMaxLeadTimeHours() { return maxLeadTimeHours; }
+    public Integer getMinOccupancyPercent() { return minOccupancyPercent; }
+    public Integer getMaxOccupancyPercent() { return maxOccupancyPercent; }
     public BigDecimal getMultiplier() { return multiplier; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public LocalDateTime getUpdatedAt() { return updatedAt; }
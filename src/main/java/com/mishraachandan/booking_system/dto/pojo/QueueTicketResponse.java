@@ -0,0 +1,24 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's place in a show's admission queue. Send {@code token} as the
+ * {@code X-Queue-Token} header on seat-lock calls once {@code admitted} is
+ * true; admission lasts until {@code admittedUntil}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueueTicketResponse {
+    private Long showId;
+    private String token;
+    // Users still ahead of this one; 0 once admitted
+    private long position;
+    private boolean admitted;
+    private LocalDateTime admittedUntil;
+}
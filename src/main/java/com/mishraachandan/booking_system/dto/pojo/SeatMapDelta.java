@@ -0,0 +1,27 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Seats of a show that changed after {@code sinceVersion}, returned for
+ * {@code GET /api/v1/shows/{showId}/seats?sinceVersion=N}.
+ *
+ * {@code version} is the seat map's current version; pass it as the next
+ * {@code sinceVersion}. When the server no longer holds the history back to
+ * {@code sinceVersion} (too old, or issued by another node / before a
+ * restart) every seat is returned and {@code fullSnapshot} is true.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDelta {
+    private Long showId;
+    private long sinceVersion;
+    private long version;
+    private boolean fullSnapshot;
+    private List<ShowSeatState> seats;
+}
@@ -0,0 +1,40 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Compact, columnar seat map for a show.
+ *
+ * Show metadata is sent once in {@code header}; seats follow as parallel
+ * arrays indexed by position in the seat map (ordered by seat number).
+ * Seat type and status are sent as ordinals, decoded with the
+ * {@code seatTypes} / {@code statuses} legends. Served for
+ * {@code Accept: application/vnd.booking.seatmap+json}; plain
+ * {@code application/json} still returns the flat {@link ShowSeatResponse} list.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapResponse {
+    private ShowHeader header;
+    // Seat-map version this snapshot reflects; usable as ?sinceVersion=
+    private long version;
+
+    // Ordinal legends: seatType[i] indexes seatTypes, status[i] indexes statuses
+    private String[] seatTypes;
+    private String[] statuses;
+
+    private long[] showSeatId;
+    private long[] seatId;
+    private String[] seatNumber;
+    // int rather than byte: Jackson would write byte[] as a Base64 string
+    private int[] seatType;
+    private int[] status;
+    private BigDecimal[] price;
+    // null where the seat is not locked
+    private Long[] lockedByUserId;
+}
@@ -0,0 +1,25 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Prices of the seats a user has just locked, returned with the lock.
+ * {@code token} is a signed copy of these prices; sending it back as
+ * {@code quoteToken} when booking charges exactly these prices until
+ * {@code expiresAt}, the end of the lock.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatPriceQuote {
+    private String token;
+    private Map<Long, BigDecimal> prices;
+    private BigDecimal total;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,24 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One seat-status delta pushed to seat-map viewers over
+ * {@code GET /api/v1/shows/{showId}/seats/stream}: the listed seats moved to
+ * {@code status} (LOCKED by {@code lockedByUserId}, BOOKED, or AVAILABLE on
+ * unlock / expiry / release).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatStatusEvent {
+    private Long showId;
+    private SeatStatus status;
+    private List<Long> showSeatIds;
+    private Long lockedByUserId;
+}
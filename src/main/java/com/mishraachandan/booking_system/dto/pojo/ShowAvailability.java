@@ -0,0 +1,20 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Seat counts of a show by status, for "fast filling" / "sold out" badges
+ * on listing pages. Served in bulk by {@code GET /api/v1/shows/availability}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowAvailability {
+    private Long showId;
+    private int totalSeats;
+    private int available;
+    private int locked;
+    private int booked;
+}
@@ -0,0 +1,32 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Show-level metadata for the seat selection screen (movie, screen, cinema,
+ * city). Identical for every seat of a show, so it is read once per show
+ * with {@code ShowRepository.findHeaderById} and cached, instead of being
+ * re-joined onto every seat row.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowHeader {
+    private Long showId;
+    private String startTime;
+    private String endTime;
+
+    private String movieTitle;
+    private String moviePosterUrl;
+    private String movieGenre;
+    private String movieLanguage;
+    private Integer movieDurationMinutes;
+
+    private Long screenId;
+    private String screenName;
+    private String cinemaName;
+    private String cinemaAddress;
+    private String cityName;
+}
@@ -0,0 +1,41 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * What every unsold seat of a show costs right now, with dynamic pricing
+ * applied. One multiplier covers the whole show; {@code prices} has one
+ * entry per (seat type, base price) found on the seat map, so clients price
+ * each seat by looking up its type and base price.
+ *
+ * {@code validUntil} is when the quote may next change on its own (the lead
+ * time crossing an hour); null when only a rule change can change it.
+ * Rules on occupancy can also change it with any sale.
+ * Served in bulk by {@code GET /api/v1/shows/quotes}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowPriceQuote {
+    private Long showId;
+    private LocalDateTime showStart;
+    private BigDecimal multiplier;
+    private List<String> appliedRules;
+    private LocalDateTime validUntil;
+    private List<Tier> prices;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Tier {
+        private String seatType;
+        private BigDecimal basePrice;
+        private BigDecimal effectivePrice;
+    }
+}
@@ -25,6 +25,12 @@ public class ShowSeatBookingRequest {
 
     private String notes;
 
+    /**
+     * Optional signed quote returned with the seat lock. While valid, the
+     * seats are charged the quoted prices instead of being priced again.
+     */
+    private String quoteToken;
+
     /**
      * Optional list of food/beverage/combo add-ons to attach to this booking.
      * Sizes and per-line quantities are validated by {@link BookingAddOnLine}
@@ -0,0 +1,26 @@
+package com.mishraachandan.booking_system.dto.pojo;
+
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mutable part of a ShowSeat row (status, lock owner, lock time, price).
+ * Read from {@code show_seats} alone — no joins — when the in-memory seat
+ * inventory for a show is (re)built.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShowSeatState {
+    private Long showSeatId;
+    private Long seatId;
+    private BigDecimal price;
+    private SeatStatus status;
+    private Long lockedByUserId;
+    private LocalDateTime lockedAt;
+}
@@ -1,6 +1,9 @@
 package com.mishraachandan.booking_system.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.mishraachandan.booking_system.dto.entity.BookableResource;
 import com.mishraachandan.booking_system.dto.entity.Category;
@@ -14,4 +17,40 @@ public interface BookableResourceRepository extends JpaRepository<BookableResour
     java.util.Optional<BookableResource> findByName(String name);
 
     boolean existsByName(String name);
+
+    /**
+     * Atomically reserves {@code quantity} tickets if they still fit the
+     * resource's capacity (NULL capacity = unlimited). Returns 1 when the
+     * tickets were reserved, 0 when there was not enough room left.
+     */
+    @Modifying
+    @Query("UPDATE BookableResource r SET r.reservedTickets = COALESCE(r.reservedTickets, 0) + :quantity " +
+            "WHERE r.id = :resourceId " +
+            "AND (r.capacity IS NULL OR COALESCE(r.reservedTickets, 0) + :quantity <= r.capacity)")
+    int reserveTickets(@Param("resourceId") Long resourceId, @Param("quantity") int quantity);
+
+    /**
+     * Gives back {@code quantity} tickets of a cancelled booking, never going
+     * below zero.
+     */
+    @Modifying
+    @Query("UPDATE BookableResource r SET r.reservedTickets = " +
+            "CASE WHEN COALESCE(r.reservedTickets, 0) > :quantity THEN r.reservedTickets - :quantity ELSE 0 END " +
+            "WHERE r.id = :resourceId")
+    int releaseTickets(@Param("resourceId") Long resourceId, @Param("quantity") int quantity);
+
+    @Query("SELECT COALESCE(r.reservedTickets, 0) FROM BookableResource r WHERE r.id = :resourceId")
+    Integer findReservedTickets(@Param("resourceId") Long resourceId);
+
+    /**
+     * One-off backfill for rows created before {@code reserved_tickets}
+     * existed: sums their CONFIRMED bookings.
+     */
+    @Modifying
+    @Query("UPDATE BookableResource r SET r.reservedTickets = " +
+            "(SELECT COALESCE(SUM(b.numberOfTickets), 0) FROM Booking b " +
+            "WHERE b.resource.id = r.id " +
+            "AND b.status = com.mishraachandan.booking_system.dto.status.BookingStatus.CONFIRMED) " +
+            "WHERE r.reservedTickets IS NULL")
+    int backfillReservedTickets();
 }
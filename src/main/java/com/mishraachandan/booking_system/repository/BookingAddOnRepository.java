@@ -11,7 +11,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingAddOnRepository extends JpaRepository<BookingAddOn, Long> {
+public interface BookingAddOnRepository extends JpaRepository<BookingAddOn, Long>, BookingAddOnRepositoryCustom {
 
     List<BookingAddOn> findByBookingId(Long bookingId);
 
@@ -0,0 +1,14 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.BookingAddOn;
+
+import java.util.List;
+
+public interface BookingAddOnRepositoryCustom {
+
+    /**
+     * Inserts all lines with one multi-row INSERT. Generated ids and
+     * timestamps are not written back to the given objects.
+     */
+    int insertAll(List<BookingAddOn> lines);
+}
@@ -0,0 +1,49 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.BookingAddOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link BookingAddOnRepositoryCustom} on plain JDBC. {@code booking_add_ons}
+ * uses IDENTITY keys, which rules out Hibernate insert batching, so the rows
+ * go out as a single statement instead. Runs on the connection of the
+ * surrounding JPA transaction.
+ */
+class BookingAddOnRepositoryImpl implements BookingAddOnRepositoryCustom {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO booking_add_ons (booking_id, add_on_id, name, unit_price, quantity, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    BookingAddOnRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertAll(List<BookingAddOn> lines) {
+        if (lines.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        List<Object> args = new ArrayList<>(lines.size() * 6);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < lines.size(); i++) {
+            BookingAddOn line = lines.get(i);
+            sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+            args.add(line.getBookingId());
+            args.add(line.getAddOnId());
+            args.add(line.getName());
+            args.add(line.getUnitPrice());
+            args.add(line.getQuantity());
+            args.add(now);
+        }
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+}
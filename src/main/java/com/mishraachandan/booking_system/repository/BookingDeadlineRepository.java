@@ -0,0 +1,16 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.BookingDeadline;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BookingDeadlineRepository extends JpaRepository<BookingDeadline, Long> {
+
+    /** Every pending deadline as {@code [bookingId, dueAt]}; used to re-arm the wheel on startup. */
+    @Query("SELECT d.bookingId, d.dueAt FROM BookingDeadline d")
+    List<Object[]> findAllPending();
+}
@@ -1,6 +1,8 @@
 package com.mishraachandan.booking_system.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import com.mishraachandan.booking_system.dto.entity.Booking;
@@ -8,6 +10,7 @@ import com.mishraachandan.booking_system.dto.pojo.BookingResponse;
 import com.mishraachandan.booking_system.dto.status.BookingStatus;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,6 +24,42 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     /** Used by the payment-expiry scheduler */
     List<Booking> findByStatusAndCreatedAtBefore(BookingStatus status, LocalDateTime before);
 
+    /**
+     * Claims up to {@code limit} bookings that have been AWAITING_PAYMENT
+     * since before {@code cutoff}, oldest first. Rows are locked until the
+     * transaction ends and rows locked by another node are skipped, so
+     * several instances can expire in parallel without overlapping.
+     */
+    @Query(value = "SELECT booking_id FROM bookings " +
+            "WHERE status = 'AWAITING_PAYMENT' AND created_at < :cutoff " +
+            "ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimExpiredAwaitingPayment(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+
+    /** Claims the given bookings that are still AWAITING_PAYMENT, skipping rows locked elsewhere. */
+    @Query(value = "SELECT booking_id FROM bookings " +
+            "WHERE booking_id IN (:bookingIds) AND status = 'AWAITING_PAYMENT' " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> claimAwaitingPayment(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = com.mishraachandan.booking_system.dto.status.BookingStatus.EXPIRED, " +
+            "b.updatedAt = :now " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = com.mishraachandan.booking_system.dto.status.BookingStatus.AWAITING_PAYMENT")
+    int expireAwaitingPayment(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
+
+    /**
+     * Next chunk of CONFIRMED bookings created in [from, to], in id order
+     * after {@code afterId}. Keyset paging for the pricing backtest.
+     */
+    @Query("SELECT b.id FROM Booking b " +
+            "WHERE b.status = com.mishraachandan.booking_system.dto.status.BookingStatus.CONFIRMED " +
+            "AND b.createdAt BETWEEN :from AND :to AND b.id > :afterId ORDER BY b.id")
+    List<Long> findConfirmedIdsCreatedBetween(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              @Param("afterId") Long afterId,
+                                              Limit limit);
+
     /** Sum the prices of all ShowSeats linked to this booking */
     @Query("SELECT SUM(ss.price) FROM ShowSeat ss WHERE ss.bookingId = :bookingId")
     Optional<BigDecimal> findTotalAmountForBooking(@Param("bookingId") Long bookingId);
@@ -0,0 +1,103 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.BookingView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookingViewRepository extends JpaRepository<BookingView, Long> {
+
+    /** Builds booking_views rows from the normalized tables; callers append a WHERE on {@code b}. */
+    String UPSERT_SELECT = """
+            INSERT INTO booking_views (
+                booking_id, user_id, status, number_of_tickets, notes, start_time, end_time, created_at,
+                user_first_name, user_last_name, user_email,
+                show_id, movie_title, movie_genre, movie_duration_minutes,
+                screen_name, cinema_name, city_name, show_start_time,
+                resource_id, resource_name,
+                seat_total, add_on_total, grand_total, add_ons, refreshed_at)
+            SELECT b.booking_id, b.user_id, b.status, b.number_of_tickets, b.notes, b.start_time, b.end_time, b.created_at,
+                   u.first_name, u.last_name, u.email,
+                   s.id, m.title, m.genre, m.duration_minutes,
+                   sc.name, c.name, ci.name, s.start_time,
+                   r.resource_id, r.name,
+                   st.seat_total, ao.add_on_total, st.seat_total + ao.add_on_total, ao.add_ons, now()
+            FROM bookings b
+            JOIN users u ON u.user_id = b.user_id
+            LEFT JOIN shows s ON s.id = b.show_id
+            LEFT JOIN movies m ON m.id = s.movie_id
+            LEFT JOIN screens sc ON sc.id = s.screen_id
+            LEFT JOIN cinemas c ON c.id = sc.cinema_id
+            LEFT JOIN cities ci ON ci.id = c.city_id
+            LEFT JOIN bookable_resources r ON r.resource_id = b.resource_id
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(SUM(ss.price), 0) AS seat_total
+                FROM show_seats ss WHERE ss.booking_id = b.booking_id
+            ) st
+            CROSS JOIN LATERAL (
+                SELECT COALESCE(SUM(a.unit_price * a.quantity), 0) AS add_on_total,
+                       COALESCE(json_agg(json_build_object(
+                           'id', a.id, 'addOnId', a.add_on_id, 'name', a.name,
+                           'unitPrice', a.unit_price, 'quantity', a.quantity,
+                           'lineTotal', a.unit_price * a.quantity) ORDER BY a.id), '[]')::text AS add_ons
+                FROM booking_add_ons a WHERE a.booking_id = b.booking_id
+            ) ao
+            """;
+
+    String UPSERT_CONFLICT = """
+            ON CONFLICT (booking_id) DO UPDATE SET
+                status = EXCLUDED.status, number_of_tickets = EXCLUDED.number_of_tickets, notes = EXCLUDED.notes,
+                start_time = EXCLUDED.start_time, end_time = EXCLUDED.end_time,
+                user_first_name = EXCLUDED.user_first_name, user_last_name = EXCLUDED.user_last_name,
+                user_email = EXCLUDED.user_email,
+                show_id = EXCLUDED.show_id, movie_title = EXCLUDED.movie_title, movie_genre = EXCLUDED.movie_genre,
+                movie_duration_minutes = EXCLUDED.movie_duration_minutes, screen_name = EXCLUDED.screen_name,
+                cinema_name = EXCLUDED.cinema_name, city_name = EXCLUDED.city_name,
+                show_start_time = EXCLUDED.show_start_time,
+                resource_id = EXCLUDED.resource_id, resource_name = EXCLUDED.resource_name,
+                seat_total = EXCLUDED.seat_total, add_on_total = EXCLUDED.add_on_total,
+                grand_total = EXCLUDED.grand_total, add_ons = EXCLUDED.add_ons, refreshed_at = EXCLUDED.refreshed_at
+            """;
+
+    /**
+     * Rebuilds the view rows of the given bookings from the current state of
+     * the normalized tables. Flushes pending entity changes first so it sees
+     * the caller's own writes.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = UPSERT_SELECT + "WHERE b.booking_id IN (:bookingIds) " + UPSERT_CONFLICT, nativeQuery = true)
+    int refresh(@Param("bookingIds") Collection<Long> bookingIds);
+
+    /** Backfill: builds up to {@code limit} rows for bookings that have none yet. */
+    @Modifying
+    @Query(value = UPSERT_SELECT
+            + "WHERE b.booking_id IN (SELECT bk.booking_id FROM bookings bk "
+            + "WHERE NOT EXISTS (SELECT 1 FROM booking_views v WHERE v.booking_id = bk.booking_id) "
+            + "ORDER BY bk.booking_id LIMIT :limit) "
+            + UPSERT_CONFLICT, nativeQuery = true)
+    int backfill(@Param("limit") int limit);
+
+    /** First page of a user's history, newest first. */
+    @Query("SELECT v FROM BookingView v WHERE v.userId = :userId ORDER BY v.createdAt DESC, v.bookingId DESC")
+    List<BookingView> findByUser(@Param("userId") Long userId, Limit limit);
+
+    /** Next page after the {@code (createdAt, bookingId)} of the last row already returned. */
+    @Query("""
+        SELECT v FROM BookingView v
+        WHERE v.userId = :userId
+          AND (v.createdAt < :createdAt OR (v.createdAt = :createdAt AND v.bookingId < :bookingId))
+        ORDER BY v.createdAt DESC, v.bookingId DESC
+    """)
+    List<BookingView> findByUserBefore(@Param("userId") Long userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("bookingId") Long bookingId,
+                                       Limit limit);
+}
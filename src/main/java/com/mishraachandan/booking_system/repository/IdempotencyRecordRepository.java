@@ -0,0 +1,41 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+
+    Optional<IdempotencyRecord> findByUserIdAndScopeAndIdempotencyKey(Long userId, String scope, String idempotencyKey);
+
+    @Modifying
+    @Query("""
+        UPDATE IdempotencyRecord r
+        SET r.status = com.mishraachandan.booking_system.dto.entity.IdempotencyRecord.Status.COMPLETED,
+            r.responseStatus = :responseStatus, r.responseBody = :responseBody
+        WHERE r.id = :id
+    """)
+    int complete(@Param("id") Long id,
+                 @Param("responseStatus") int responseStatus,
+                 @Param("responseBody") String responseBody);
+
+    /**
+     * Removes a claim so the key can be used again: the request failed, or
+     * an in-progress claim was abandoned. Only deletes rows in the given
+     * state, so a record completed in the meantime is kept.
+     */
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.id = :id AND r.status = :status")
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("status") IdempotencyRecord.Status status);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,61 @@
+package com.mishraachandan.booking_system.repository;
+
+import com.mishraachandan.booking_system.dto.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Transaction-scoped Postgres advisory lock on {@code key}; false when
+     * another transaction holds it. Released at commit or rollback.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:key)", nativeQuery = true)
+    boolean tryAdvisoryXactLock(@Param("key") long key);
+
+    /**
+     * Oldest unpublished events, in delivery order. Locked for the
+     * transaction; rows held by another relay are skipped.
+     */
+    @Query(value = "SELECT * FROM outbox_events WHERE published_at IS NULL " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimUnpublished(@Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL")
+    LocalDateTime findOldestUnpublishedCreatedAt();
+
+    /**
+     * One set-based insert of a BOOKING_EXPIRED event per booking; used by
+     * the chunked payment-expiry path so the outbox costs one statement per
+     * chunk. The payload matches the one written by {@code OutboxService}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO outbox_events (event_type, booking_id, payload, created_at)
+            SELECT 'BOOKING_EXPIRED', b.booking_id,
+                   json_build_object('bookingId', b.booking_id, 'status', b.status, 'userId', b.user_id,
+                                     'showId', b.show_id, 'resourceId', b.resource_id,
+                                     'numberOfTickets', b.number_of_tickets)::text,
+                   :now
+            FROM bookings b
+            WHERE b.booking_id IN (:bookingIds)
+            ORDER BY b.booking_id
+            """, nativeQuery = true)
+    int insertExpiredEvents(@Param("bookingIds") Collection<Long> bookingIds, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
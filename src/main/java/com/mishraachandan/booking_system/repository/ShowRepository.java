@@ -1,12 +1,16 @@
 package com.mishraachandan.booking_system.repository;
 
 import com.mishraachandan.booking_system.dto.entity.Show;
+import com.mishraachandan.booking_system.dto.pojo.ShowHeader;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShowRepository extends JpaRepository<Show, Long> {
@@ -15,4 +19,37 @@ public interface ShowRepository extends JpaRepository<Show, Long> {
 
     @Query("SELECT s FROM Show s WHERE s.screen.cinema.city.id = :cityId")
     List<Show> findByCityId(@Param("cityId") Long cityId);
+
+    /** Ids of shows that have not ended yet — the ones worth holding in memory. */
+    @Query("SELECT s.id FROM Show s WHERE s.endTime > :now")
+    List<Long> findIdsEndingAfter(@Param("now") LocalDateTime now);
+
+    @Query("SELECT s.endTime FROM Show s WHERE s.id = :showId")
+    Optional<LocalDateTime> findEndTimeById(@Param("showId") Long showId);
+
+    @Query("SELECT s.id FROM Show s WHERE s.admissionQueueEnabled = true")
+    List<Long> findIdsWithAdmissionQueueEnabled();
+
+    @Modifying
+    @Query("UPDATE Show s SET s.admissionQueueEnabled = :enabled WHERE s.id = :showId")
+    int updateAdmissionQueueEnabled(@Param("showId") Long showId, @Param("enabled") Boolean enabled);
+
+    /**
+     * Show-level metadata for the seat map (movie, screen, cinema, city) in one
+     * row — joined once per show rather than once per seat.
+     */
+    @Query("""
+            SELECT new com.mishraachandan.booking_system.dto.pojo.ShowHeader(
+                sh.id, CAST(sh.startTime AS string), CAST(sh.endTime AS string),
+                m.title, m.posterUrl, m.genre, m.language, m.durationMinutes,
+                scr.id, scr.name, c.name, c.address, ci.name
+            )
+            FROM Show sh
+            JOIN sh.movie m
+            JOIN sh.screen scr
+            JOIN scr.cinema c
+            JOIN c.city ci
+            WHERE sh.id = :showId
+            """)
+    Optional<ShowHeader> findHeaderById(@Param("showId") Long showId);
 }
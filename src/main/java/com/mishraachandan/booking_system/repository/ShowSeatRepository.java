@@ -3,14 +3,18 @@ package com.mishraachandan.booking_system.repository;
 import com.mishraachandan.booking_system.dto.entity.ShowSeat;
 import com.mishraachandan.booking_system.dto.entity.SeatStatus;
 import com.mishraachandan.booking_system.dto.pojo.ShowSeatResponse;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatState;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
@@ -42,12 +46,156 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
             """)
     List<ShowSeatResponse> findShowSeatResponsesByShowId(@Param("showId") Long showId);
 
+    /**
+     * Mutable seat state for a show, read from show_seats alone (no joins).
+     * Used to (re)build the in-memory seat inventory.
+     */
+    @Query("""
+            SELECT new com.mishraachandan.booking_system.dto.pojo.ShowSeatState(
+                ss.id, ss.seat.id, ss.price, ss.status, ss.lockedByUserId, ss.lockedAt
+            )
+            FROM ShowSeat ss
+            WHERE ss.show.id = :showId
+            """)
+    List<ShowSeatState> findStatesByShowId(@Param("showId") Long showId);
+
+    /**
+     * Seat counts per (show, status) for many shows in one grouped scan, as
+     * (showId, status, count) rows.
+     */
+    @Query("SELECT ss.show.id, ss.status, COUNT(ss) FROM ShowSeat ss " +
+            "WHERE ss.show.id IN :showIds GROUP BY ss.show.id, ss.status")
+    List<Object[]> countByShowIdsAndStatus(@Param("showIds") Collection<Long> showIds);
+
+    /**
+     * Distinct (seat type, base price) pairs of the unsold seats of many
+     * shows, as (showId, showStart, seatType, price) rows. Booked seats are
+     * left out: their price is what was charged, not the base.
+     */
+    @Query("SELECT ss.show.id, ss.show.startTime, ss.seat.seatType, ss.price FROM ShowSeat ss " +
+            "WHERE ss.show.id IN :showIds " +
+            "AND ss.status <> com.mishraachandan.booking_system.dto.entity.SeatStatus.BOOKED " +
+            "GROUP BY ss.show.id, ss.show.startTime, ss.seat.seatType, ss.price " +
+            "ORDER BY ss.show.id, ss.seat.seatType, ss.price")
+    List<Object[]> findPriceTiers(@Param("showIds") Collection<Long> showIds);
+
+    /**
+     * Seats of many bookings for the pricing backtest, as (bookingId,
+     * booking createdAt, show startTime, price) rows grouped by booking.
+     */
+    @Query("SELECT ss.bookingId, b.createdAt, ss.show.startTime, ss.price FROM ShowSeat ss, Booking b " +
+            "WHERE b.id = ss.bookingId AND ss.bookingId IN :bookingIds ORDER BY ss.bookingId")
+    List<Object[]> findPricingHistory(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("SELECT ss.show.id FROM ShowSeat ss WHERE ss.id = :showSeatId")
+    Optional<Long> findShowIdById(@Param("showSeatId") Long showSeatId);
+
+    @Query("SELECT ss.id FROM ShowSeat ss WHERE ss.bookingId = :bookingId")
+    List<Long> findIdsByBookingId(@Param("bookingId") Long bookingId);
+
+    @Query("SELECT ss.id FROM ShowSeat ss WHERE ss.bookingId IN :bookingIds")
+    List<Long> findIdsByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
+
+    @Query("""
+            SELECT new com.mishraachandan.booking_system.dto.pojo.ShowSeatState(
+                ss.id, ss.seat.id, ss.price, ss.status, ss.lockedByUserId, ss.lockedAt
+            )
+            FROM ShowSeat ss
+            WHERE ss.id IN :ids
+            """)
+    List<ShowSeatState> findStatesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Compare-and-set lock: moves only rows that are still AVAILABLE.
+     * Returns the number of rows locked; anything short of ids.size() means
+     * another user got there first and the caller must roll back.
+     */
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.status = 'LOCKED', ss.lockedAt = :lockedAt, ss.lockedByUserId = :userId " +
+            "WHERE ss.id IN :ids AND ss.show.id = :showId AND ss.status = 'AVAILABLE'")
+    int lockIfAvailable(@Param("showId") Long showId,
+                        @Param("ids") Collection<Long> ids,
+                        @Param("userId") Long userId,
+                        @Param("lockedAt") LocalDateTime lockedAt);
+
+    /**
+     * Moves a LOCKED row back to AVAILABLE. Never touches BOOKED rows.
+     */
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.status = 'AVAILABLE', ss.lockedAt = null, ss.lockedByUserId = null " +
+            "WHERE ss.id = :showSeatId AND ss.status = 'LOCKED'")
+    int unlockIfLocked(@Param("showSeatId") Long showSeatId);
+
+    /**
+     * Set-based BOOKED transition for a new booking. Only rows still LOCKED by
+     * the booking user move; callers treat a count short of ids.size() as a
+     * conflict (lock expired or taken over) and roll back.
+     */
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.status = 'BOOKED', ss.lockedAt = null, ss.lockedByUserId = null, " +
+            "ss.bookingId = :bookingId " +
+            "WHERE ss.id IN :ids AND ss.status = 'LOCKED' AND ss.lockedByUserId = :userId")
+    int markBooked(@Param("ids") Collection<Long> ids,
+                   @Param("userId") Long userId,
+                   @Param("bookingId") Long bookingId);
+
+    /**
+     * Materialises one AVAILABLE ShowSeat per physical seat of each show's
+     * screen in a single set-based INSERT ... SELECT, priced by seat type.
+     * Seats that already have a row for the show are skipped, so the call is
+     * idempotent.
+     *
+     * @return number of ShowSeat rows created
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO show_seats (show_id, seat_id, price, status)
+            SELECT sh.id, s.id,
+                   CASE s.seat_type
+                       WHEN 'VIP' THEN :vipPrice
+                       WHEN 'PREMIUM' THEN :premiumPrice
+                       WHEN 'RECLINER' THEN :reclinerPrice
+                       ELSE :regularPrice
+                   END,
+                   'AVAILABLE'
+            FROM shows sh
+            JOIN seats s ON s.screen_id = sh.screen_id
+            WHERE sh.id IN (:showIds)
+            ON CONFLICT (show_id, seat_id) DO NOTHING
+            """, nativeQuery = true)
+    int materializeForShows(@Param("showIds") Collection<Long> showIds,
+                            @Param("regularPrice") BigDecimal regularPrice,
+                            @Param("premiumPrice") BigDecimal premiumPrice,
+                            @Param("vipPrice") BigDecimal vipPrice,
+                            @Param("reclinerPrice") BigDecimal reclinerPrice);
+
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.price = :price WHERE ss.id = :showSeatId")
+    int updatePrice(@Param("showSeatId") Long showSeatId, @Param("price") BigDecimal price);
+
     /**
      * Find show seats that have been locked past the cutoff time.
      */
     @Query("SELECT ss FROM ShowSeat ss WHERE ss.status = 'LOCKED' AND ss.lockedAt < :cutoffTime")
     List<ShowSeat> findExpiredLocks(@Param("cutoffTime") LocalDateTime cutoffTime);
 
+    /**
+     * Every currently held lock as (showId, showSeatId, lockedAt) rows.
+     * Used to re-arm the lock-expiry timing wheel after a restart.
+     */
+    @Query("SELECT ss.show.id, ss.id, ss.lockedAt FROM ShowSeat ss WHERE ss.status = 'LOCKED'")
+    List<Object[]> findActiveLocks();
+
+    /**
+     * Releases the given seats if they are still LOCKED by a lock taken at or
+     * before the cutoff. A seat that was unlocked, booked or re-locked since
+     * is left alone.
+     */
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.status = 'AVAILABLE', ss.lockedAt = null, ss.lockedByUserId = null " +
+            "WHERE ss.id IN :ids AND ss.status = 'LOCKED' AND ss.lockedAt <= :cutoffTime")
+    int releaseExpiredLocks(@Param("ids") Collection<Long> ids, @Param("cutoffTime") LocalDateTime cutoffTime);
+
     /**
      * Release expired locks in bulk.
      */
@@ -70,4 +218,14 @@ public interface ShowSeatRepository extends JpaRepository<ShowSeat, Long> {
            "ss.lockedByUserId = null, ss.bookingId = null " +
            "WHERE ss.bookingId = :bookingId")
     int releaseByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Bulk release of the seats of several bookings back to AVAILABLE; used
+     * by the chunked payment-expiry sweep.
+     */
+    @Modifying
+    @Query("UPDATE ShowSeat ss SET ss.status = 'AVAILABLE', ss.lockedAt = null, " +
+           "ss.lockedByUserId = null, ss.bookingId = null " +
+           "WHERE ss.bookingId IN :bookingIds")
+    int releaseByBookingIds(@Param("bookingIds") Collection<Long> bookingIds);
 }
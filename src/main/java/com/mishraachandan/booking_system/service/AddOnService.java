@@ -1,37 +1,142 @@
 package com.mishraachandan.booking_system.service;
 
 import com.mishraachandan.booking_system.dto.entity.AddOn;
+import com.mishraachandan.booking_system.dto.pojo.AddOnRequest;
 import com.mishraachandan.booking_system.dto.pojo.AddOnResponse;
 import com.mishraachandan.booking_system.repository.AddOnRepository;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Add-on catalogue. The available add-ons are held in memory as one
+ * immutable snapshot that serves both the public menu and checkout-time
+ * validation, so neither touches the database on the hot path.
+ *
+ * Admin changes through this service drop the snapshot once they commit;
+ * the next read reloads it. Changes made on another instance (or straight in
+ * the database) are picked up after {@link #CATALOGUE_TTL_MILLIS}.
+ */
 @Service
 public class AddOnService {
 
+    private static final long CATALOGUE_TTL_MILLIS = 60_000;
+
     private final AddOnRepository addOnRepository;
 
+    private volatile Catalogue catalogue;
+
     public AddOnService(AddOnRepository addOnRepository) {
         this.addOnRepository = addOnRepository;
     }
 
-    @Transactional(readOnly = true)
     public List<AddOnResponse> getAvailableAddOns() {
-        return addOnRepository.findByAvailableTrueOrderByCategoryAscPriceAsc()
-                .stream()
-                .map(AddOnResponse::fromEntity)
-                .toList();
+        return catalogue().menu();
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Returns the catalogue entry for an add-on that can currently be sold.
+     * The returned object is shared; callers must not modify it.
+     */
     public AddOn requireAvailable(Long id) {
-        AddOn a = addOnRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Add-on not found: " + id));
-        if (!Boolean.TRUE.equals(a.getAvailable())) {
-            throw new IllegalStateException("Add-on is not available: " + id);
+        Catalogue current = catalogue();
+        AddOn a = current.byId().get(id);
+        if (a == null) {
+            throw new IllegalArgumentException("Add-on not found or not available: " + id);
         }
         return a;
     }
+
+    // ─── Admin ────────────────────────────────────────────────────────────────────
+
+    @Transactional(readOnly = true)
+    public List<AddOn> getAllAddOns() {
+        return addOnRepository.findAll();
+    }
+
+    @Transactional
+    public AddOn createAddOn(AddOnRequest req) {
+        AddOn addOn = AddOn.builder()
+                .name(req.getName())
+                .description(req.getDescription())
+                .category(req.getCategory())
+                .price(req.getPrice())
+                .imageUrl(req.getImageUrl())
+                .available(req.getAvailable() == null ? Boolean.TRUE : req.getAvailable())
+                .build();
+        AddOn saved = addOnRepository.save(addOn);
+        invalidateAfterCommit();
+        return saved;
+    }
+
+    @Transactional
+    public AddOn updateAddOn(Long id, AddOnRequest req) {
+        AddOn addOn = addOnRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Add-on not found: " + id));
+        addOn.setName(req.getName());
+        addOn.setDescription(req.getDescription());
+        addOn.setCategory(req.getCategory());
+        addOn.setPrice(req.getPrice());
+        addOn.setImageUrl(req.getImageUrl());
+        if (req.getAvailable() != null) {
+            addOn.setAvailable(req.getAvailable());
+        }
+        invalidateAfterCommit();
+        return addOn;
+    }
+
+    @Transactional
+    public AddOn setAvailable(Long id, boolean available) {
+        AddOn addOn = addOnRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Add-on not found: " + id));
+        addOn.setAvailable(available);
+        invalidateAfterCommit();
+        return addOn;
+    }
+
+    /** Drops the cached catalogue; the next read reloads it. */
+    public void invalidate() {
+        catalogue = null;
+    }
+
+    // ─── Catalogue snapshot ───────────────────────────────────────────────────────
+
+    private Catalogue catalogue() {
+        Catalogue current = catalogue;
+        if (current == null || System.currentTimeMillis() - current.loadedAtMillis() > CATALOGUE_TTL_MILLIS) {
+            current = load();
+            catalogue = current;
+        }
+        return current;
+    }
+
+    private Catalogue load() {
+        List<AddOn> available = addOnRepository.findByAvailableTrueOrderByCategoryAscPriceAsc();
+        Map<Long, AddOn> byId = available.stream()
+                .collect(Collectors.toUnmodifiableMap(AddOn::getId, Function.identity()));
+        List<AddOnResponse> menu = available.stream().map(AddOnResponse::fromEntity).toList();
+        return new Catalogue(byId, menu, System.currentTimeMillis());
+    }
+
+    private void invalidateAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate();
+                }
+            });
+        } else {
+            invalidate();
+        }
+    }
+
+    private record Catalogue(Map<Long, AddOn> byId, List<AddOnResponse> menu, long loadedAtMillis) {
+    }
 }
@@ -0,0 +1,279 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.pojo.QueueTicketResponse;
+import com.mishraachandan.booking_system.repository.ShowRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Virtual waiting room for hot show on-sales.
+ *
+ * When an admin turns the queue on for a show, users first join the queue
+ * and get an opaque token plus their position; every second the next
+ * {@code queue.admission.rate-per-second} users are admitted for
+ * {@code queue.admission.window-minutes}. The seat-lock endpoint rejects
+ * calls without an admitted token before any seat or database work, so the
+ * connection pool only ever sees the admitted flow.
+ *
+ * Waiting users are expected to poll their status; a ticket not polled for
+ * {@link #STALE_MILLIS} is dropped when it reaches the head of the queue
+ * instead of using up an admission slot.
+ *
+ * The per-show on/off flag lives on {@code shows}: a toggle takes effect on
+ * the node that made it once committed, and on every other node within
+ * {@link #FLAG_REFRESH_MILLIS}. Queue state (tickets, positions, admissions)
+ * lives in memory per node, like {@code InMemoryRateLimiter}; with several
+ * nodes each admits its own {@code rate-per-second}, and a user must keep
+ * talking to the node that issued their token.
+ */
+@Service
+public class AdmissionQueueService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionQueueService.class);
+
+    private static final long STALE_MILLIS = 60_000;
+    private static final long FLAG_REFRESH_MILLIS = 10_000;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    @Value("${queue.admission.rate-per-second:50}")
+    private int admitPerSecond;
+
+    @Value("${queue.admission.window-minutes:10}")
+    private long admissionWindowMinutes;
+
+    private final ShowRepository showRepository;
+
+    private final Set<Long> enabledShows = ConcurrentHashMap.newKeySet();
+    private final Map<Long, ShowQueue> queues = new ConcurrentHashMap<>();
+
+    public AdmissionQueueService(ShowRepository showRepository) {
+        this.showRepository = showRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadEnabledShows() {
+        refreshEnabledShows();
+    }
+
+    /**
+     * Re-reads the per-show flags, so toggles made through another node
+     * apply here too. Shows switched off lose their queue.
+     */
+    @Scheduled(fixedRate = FLAG_REFRESH_MILLIS, initialDelay = FLAG_REFRESH_MILLIS)
+    public void refreshEnabledShows() {
+        Set<Long> enabled;
+        try {
+            enabled = new HashSet<>(showRepository.findIdsWithAdmissionQueueEnabled());
+        } catch (Exception e) {
+            logger.warn("Admission queue flags not loaded: {}", e.getMessage());
+            return;
+        }
+        enabledShows.addAll(enabled);
+        for (Long showId : enabledShows) {
+            if (!enabled.contains(showId)) {
+                apply(showId, false);
+            }
+        }
+    }
+
+    public boolean isEnabled(Long showId) {
+        return enabledShows.contains(showId);
+    }
+
+    /**
+     * Turns the admission queue for a show on or off. Turning it off drops
+     * the queue; everyone may lock seats again. Applied here once the update
+     * commits; other nodes pick it up on their next flag refresh.
+     */
+    @Transactional
+    public void setEnabled(Long showId, boolean enabled) {
+        if (showRepository.updateAdmissionQueueEnabled(showId, enabled) == 0) {
+            throw new IllegalArgumentException("Show not found: " + showId);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(showId, enabled);
+                }
+            });
+        } else {
+            apply(showId, enabled);
+        }
+        logger.info("Admission queue for show {} {}", showId, enabled ? "enabled" : "disabled");
+    }
+
+    private void apply(Long showId, boolean enabled) {
+        if (enabled) {
+            enabledShows.add(showId);
+        } else {
+            enabledShows.remove(showId);
+            queues.remove(showId);
+        }
+    }
+
+    /**
+     * Puts a user in a show's queue, or returns their existing ticket.
+     * When the queue is off the ticket is admitted straight away.
+     */
+    public QueueTicketResponse join(Long showId, Long userId) {
+        if (!isEnabled(showId)) {
+            return new QueueTicketResponse(showId, null, 0, true, null);
+        }
+        ShowQueue queue = queues.computeIfAbsent(showId, k -> new ShowQueue());
+        return queue.join(showId, userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Current position / admission of a ticket; also marks the holder as
+     * still waiting.
+     */
+    public QueueTicketResponse status(Long showId, String token) {
+        if (!isEnabled(showId)) {
+            return new QueueTicketResponse(showId, token, 0, true, null);
+        }
+        ShowQueue queue = queues.get(showId);
+        QueueTicketResponse ticket = queue == null ? null : queue.status(showId, token, System.currentTimeMillis());
+        if (ticket == null) {
+            throw new IllegalArgumentException("Unknown or expired queue token");
+        }
+        return ticket;
+    }
+
+    /**
+     * Cheap gate for the seat-lock endpoint: true when the show has no queue,
+     * or {@code token} belongs to {@code userId} and is currently admitted.
+     */
+    public boolean isAdmitted(Long showId, String token, Long userId) {
+        if (!isEnabled(showId)) {
+            return true;
+        }
+        ShowQueue queue = queues.get(showId);
+        return queue != null && token != null && queue.isAdmitted(token, userId, System.currentTimeMillis());
+    }
+
+    /**
+     * Runs every second: admits the next batch of waiting users in every
+     * queued show and forgets admissions that have run out.
+     */
+    @Scheduled(fixedRate = 1000)
+    public void admitNext() {
+        long now = System.currentTimeMillis();
+        queues.forEach((showId, queue) -> queue.advance(admitPerSecond, now, admissionWindowMinutes * 60_000L));
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[18];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // ─── Per-show queue ──────────────────────────────────────────────────────────
+
+    private static final class Ticket {
+        private final String token;
+        private final long userId;
+        private final long sequence;
+        private long lastSeenMillis;
+        private long admittedUntilMillis; // 0 while waiting
+
+        private Ticket(String token, long userId, long sequence, long now) {
+            this.token = token;
+            this.userId = userId;
+            this.sequence = sequence;
+            this.lastSeenMillis = now;
+        }
+    }
+
+    /** FIFO of tickets for one show; all access under the instance monitor. */
+    private static final class ShowQueue {
+        private final Map<String, Ticket> byToken = new HashMap<>();
+        private final Map<Long, Ticket> byUser = new HashMap<>();
+        private final Deque<Ticket> waiting = new ArrayDeque<>();
+        private final Deque<Ticket> admitted = new ArrayDeque<>();
+        private long issued;
+        private long admittedThrough;
+
+        synchronized QueueTicketResponse join(Long showId, long userId, long now) {
+            Ticket ticket = byUser.get(userId);
+            if (ticket == null) {
+                ticket = new Ticket(newToken(), userId, ++issued, now);
+                byToken.put(ticket.token, ticket);
+                byUser.put(userId, ticket);
+                waiting.add(ticket);
+            }
+            ticket.lastSeenMillis = now;
+            return toResponse(showId, ticket);
+        }
+
+        synchronized QueueTicketResponse status(Long showId, String token, long now) {
+            Ticket ticket = byToken.get(token);
+            if (ticket == null) {
+                return null;
+            }
+            ticket.lastSeenMillis = now;
+            return toResponse(showId, ticket);
+        }
+
+        synchronized boolean isAdmitted(String token, long userId, long now) {
+            Ticket ticket = byToken.get(token);
+            return ticket != null && ticket.userId == userId && ticket.admittedUntilMillis > now;
+        }
+
+        synchronized void advance(int batch, long now, long windowMillis) {
+            while (!admitted.isEmpty() && admitted.peek().admittedUntilMillis <= now) {
+                forget(admitted.poll());
+            }
+            int admittedNow = 0;
+            while (admittedNow < batch && !waiting.isEmpty()) {
+                Ticket ticket = waiting.poll();
+                admittedThrough = ticket.sequence;
+                if (now - ticket.lastSeenMillis > STALE_MILLIS) {
+                    forget(ticket);
+                    continue;
+                }
+                ticket.admittedUntilMillis = now + windowMillis;
+                admitted.add(ticket);
+                admittedNow++;
+            }
+        }
+
+        private void forget(Ticket ticket) {
+            byToken.remove(ticket.token);
+            byUser.remove(ticket.userId, ticket);
+        }
+
+        private QueueTicketResponse toResponse(Long showId, Ticket ticket) {
+            boolean isAdmitted = ticket.admittedUntilMillis > 0;
+            return new QueueTicketResponse(showId, ticket.token,
+                    isAdmitted ? 0 : ticket.sequence - admittedThrough,
+                    isAdmitted,
+                    isAdmitted ? toLocalDateTime(ticket.admittedUntilMillis) : null);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.Booking;
+import com.mishraachandan.booking_system.dto.pojo.BookingResponse;
+import com.mishraachandan.booking_system.dto.pojo.BookingTicketResponse;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatBookingRequest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous show-seat booking.
+ *
+ * {@link #submit} only queues the request; the HTTP thread returns 202
+ * straight away. A fixed set of worker threads runs the actual
+ * {@link BookingService#bookShowSeats} calls, so at peak the booking path
+ * holds at most {@code bookings.pipeline.workers} database connections no
+ * matter how many requests are waiting.
+ *
+ * Requests are routed to a worker by show, and each worker drains its queue
+ * in micro-batches of up to {@code bookings.pipeline.batch-size} processed
+ * show by show. All bookings for one show therefore run on one thread in
+ * arrival order and never contend with each other for the same seat rows.
+ * Each booking keeps its own transaction, so one failed booking doesn't
+ * take the rest of its batch down with it.
+ *
+ * Queues are bounded: when a worker's queue is full, {@link #submit} returns
+ * null and the caller should answer 503. Tickets live in memory for
+ * {@link #TICKET_RETENTION_MILLIS} after they finish; single-instance, like
+ * the admission queue.
+ */
+@Service
+public class BookingPipelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingPipelineService.class);
+
+    private static final long TICKET_RETENTION_MILLIS = 10 * 60_000;
+    private static final long STREAM_TIMEOUT_MILLIS = 60_000;
+    // Ticket SSE notifications waiting for a notifier thread; beyond this
+    // they are dropped and the client falls back to polling
+    private static final int NOTIFY_QUEUE_CAPACITY = 1_000;
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
+    @Value("${bookings.pipeline.workers:4}")
+    private int workerCount;
+
+    @Value("${bookings.pipeline.queue-capacity:2000}")
+    private int queueCapacity;
+
+    @Value("${bookings.pipeline.batch-size:32}")
+    private int batchSize;
+
+    private final BookingService bookingService;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final List<BlockingQueue<Ticket>> queues = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    // Writes ticket SSE events, so a slow client can't hold up a booking worker
+    private final ThreadPoolExecutor notifier = new ThreadPoolExecutor(2, 2, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(NOTIFY_QUEUE_CAPACITY), r -> {
+                Thread t = new Thread(r, "booking-pipeline-notify");
+                t.setDaemon(true);
+                return t;
+            });
+    private final Executor notify = task -> {
+        try {
+            notifier.execute(task);
+        } catch (RejectedExecutionException e) {
+            logger.debug("Ticket notification dropped; the client can still poll");
+        }
+    };
+    private volatile boolean running;
+
+    public BookingPipelineService(BookingService bookingService, MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        int workersToStart = Math.max(1, workerCount);
+        int perWorkerCapacity = Math.max(1, queueCapacity / workersToStart);
+        for (int i = 0; i < workersToStart; i++) {
+            BlockingQueue<Ticket> queue = new ArrayBlockingQueue<>(perWorkerCapacity);
+            queues.add(queue);
+            Thread worker = new Thread(() -> runWorker(queue), "booking-pipeline-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+        Gauge.builder("bookings.pipeline.queued", queues, qs -> qs.stream().mapToInt(BlockingQueue::size).sum())
+                .description("Show-seat bookings waiting for a pipeline worker")
+                .register(meterRegistry);
+        logger.info("Booking pipeline started: {} workers, {} queued bookings each", workersToStart, perWorkerCapacity);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        notifier.shutdownNow();
+        for (BlockingQueue<Ticket> queue : queues) {
+            List<Ticket> abandoned = new ArrayList<>();
+            queue.drainTo(abandoned);
+            abandoned.forEach(t -> t.fail("Server is shutting down; please retry"));
+        }
+    }
+
+    /**
+     * Queues a booking for {@code userId}.
+     *
+     * @return the new ticket, or null when the pipeline is full (or not running)
+     */
+    public BookingTicketResponse submit(Long userId, ShowSeatBookingRequest request) {
+        if (!running) {
+            return null;
+        }
+        Ticket ticket = new Ticket(newTicketId(), userId, request);
+        BlockingQueue<Ticket> queue = queues.get(Math.floorMod(request.getShowId().hashCode(), queues.size()));
+        tickets.put(ticket.id, ticket);
+        if (!queue.offer(ticket)) {
+            tickets.remove(ticket.id);
+            return null;
+        }
+        return ticket.toResponse();
+    }
+
+    /** Current state of a ticket, or null if unknown, expired or owned by someone else. */
+    public BookingTicketResponse status(String ticketId, Long userId) {
+        Ticket ticket = find(ticketId, userId);
+        return ticket == null ? null : ticket.toResponse();
+    }
+
+    /**
+     * Server-Sent Events alternative to polling: sends one {@code ticket}
+     * event with the final state once the booking has been processed, then
+     * closes. Null if the ticket is unknown to this user. The event is written
+     * on a notifier thread, never on the booking worker.
+     */
+    public SseEmitter stream(String ticketId, Long userId) {
+        Ticket ticket = find(ticketId, userId);
+        if (ticket == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+        ticket.done.whenCompleteAsync((v, e) -> {
+            try {
+                emitter.send(SseEmitter.event().name("ticket").data(ticket.toResponse()));
+                emitter.complete();
+            } catch (IOException | IllegalStateException ex) {
+                // Client went away or the emitter timed out; it can still poll
+                emitter.completeWithError(ex);
+            }
+        }, notify);
+        return emitter;
+    }
+
+    /** Runs every minute: forgets finished tickets past their retention. */
+    @Scheduled(fixedRate = 60_000)
+    public void purgeFinishedTickets() {
+        long cutoff = System.currentTimeMillis() - TICKET_RETENTION_MILLIS;
+        tickets.values().removeIf(t -> t.completedAtMillis != 0 && t.completedAtMillis < cutoff);
+    }
+
+    // ─── Workers ──────────────────────────────────────────────────────────────────
+
+    private void runWorker(BlockingQueue<Ticket> queue) {
+        List<Ticket> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, Math.max(0, batchSize - 1));
+
+                Map<Long, List<Ticket>> byShow = new LinkedHashMap<>();
+                for (Ticket ticket : batch) {
+                    byShow.computeIfAbsent(ticket.request.getShowId(), k -> new ArrayList<>()).add(ticket);
+                }
+                byShow.values().forEach(showTickets -> showTickets.forEach(this::process));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // process() handles booking failures; this only guards the loop itself
+                logger.error("Booking pipeline worker error: {}", e.getMessage(), e);
+            } finally {
+                batch.forEach(t -> t.fail("Booking was not processed; please retry"));
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(Ticket ticket) {
+        ticket.status = BookingTicketResponse.Status.PROCESSING;
+        try {
+            Booking booking = bookingService.bookShowSeats(ticket.userId, ticket.request);
+            ticket.succeed(BookingResponse.fromBooking(booking));
+        } catch (ResponseStatusException e) {
+            ticket.fail(e.getReason());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            // Domain refusals ("seat already booked", ...): safe to show
+            ticket.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            // Anything else may carry SQL or constraint names; like the
+            // synchronous endpoint's 500, the client gets a generic message
+            logger.error("Pipelined booking {} failed: {}", ticket.id, e.getMessage(), e);
+            ticket.fail("Booking failed; please retry");
+        }
+    }
+
+    private Ticket find(String ticketId, Long userId) {
+        Ticket ticket = tickets.get(ticketId);
+        return ticket != null && ticket.userId.equals(userId) ? ticket : null;
+    }
+
+    private static String newTicketId() {
+        byte[] bytes = new byte[18];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // ─── Ticket ───────────────────────────────────────────────────────────────────
+
+    private static final class Ticket {
+        private final String id;
+        private final Long userId;
+        private final ShowSeatBookingRequest request;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile BookingTicketResponse.Status status = BookingTicketResponse.Status.QUEUED;
+        private volatile BookingResponse booking;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+        private volatile long completedAtMillis;
+
+        private Ticket(String id, Long userId, ShowSeatBookingRequest request) {
+            this.id = id;
+            this.userId = userId;
+            this.request = request;
+        }
+
+        private void succeed(BookingResponse booking) {
+            this.booking = booking;
+            finish(BookingTicketResponse.Status.SUCCEEDED);
+        }
+
+        /** No-op if the ticket already finished. */
+        private void fail(String error) {
+            if (done.isDone()) {
+                return;
+            }
+            this.error = error;
+            finish(BookingTicketResponse.Status.FAILED);
+        }
+
+        private void finish(BookingTicketResponse.Status finalStatus) {
+            completedAt = LocalDateTime.now();
+            completedAtMillis = System.currentTimeMillis();
+            status = finalStatus;
+            done.complete(null);
+        }
+
+        private BookingTicketResponse toResponse() {
+            return new BookingTicketResponse(id, request.getShowId(), status, booking, error, submittedAt, completedAt);
+        }
+    }
+}
@@ -1,36 +1,54 @@
 package com.mishraachandan.booking_system.service;
 
+import com.mishraachandan.booking_system.config.SchedulingConfig;
 import com.mishraachandan.booking_system.dto.entity.AddOn;
 import com.mishraachandan.booking_system.dto.entity.Booking;
 import com.mishraachandan.booking_system.dto.entity.BookableResource;
 import com.mishraachandan.booking_system.dto.entity.BookingAddOn;
-import com.mishraachandan.booking_system.dto.entity.Show;
-import com.mishraachandan.booking_system.dto.entity.ShowSeat;
+import com.mishraachandan.booking_system.dto.entity.BookingView;
+import com.mishraachandan.booking_system.dto.entity.OutboxEvent;
 import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.entity.Show;
 import com.mishraachandan.booking_system.dto.status.BookingStatus;
 import com.mishraachandan.booking_system.dto.entity.User;
 import com.mishraachandan.booking_system.dto.pojo.BookingAddOnLine;
+import com.mishraachandan.booking_system.dto.pojo.BookingAddOnResponse;
+import com.mishraachandan.booking_system.dto.pojo.BookingPage;
 import com.mishraachandan.booking_system.dto.pojo.BookingRequest;
 import com.mishraachandan.booking_system.dto.pojo.BookingResponse;
-import com.mishraachandan.booking_system.dto.pojo.PriceBreakdown;
 import com.mishraachandan.booking_system.dto.pojo.ShowSeatBookingRequest;
-import com.mishraachandan.booking_system.repository.AddOnRepository;
 import com.mishraachandan.booking_system.repository.BookableResourceRepository;
 import com.mishraachandan.booking_system.repository.BookingAddOnRepository;
 import com.mishraachandan.booking_system.repository.BookingRepository;
+import com.mishraachandan.booking_system.repository.BookingViewRepository;
 import com.mishraachandan.booking_system.repository.ShowRepository;
 import com.mishraachandan.booking_system.repository.ShowSeatRepository;
 import com.mishraachandan.booking_system.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
@@ -41,35 +59,95 @@ public class BookingService {
     // Auto-cancel bookings that are AWAITING_PAYMENT for more than this many minutes
     private static final int PAYMENT_TIMEOUT_MINUTES = 10;
 
+    // Upper bound for one page of GET /api/bookings/my
+    public static final int MAX_BOOKINGS_PAGE_SIZE = 100;
+    private static final int VIEW_BACKFILL_CHUNK = 1000;
+    private static final TypeReference<List<BookingAddOnResponse>> ADD_ON_LINES = new TypeReference<>() { };
+
     private final BookingRepository bookingRepository;
     private final BookableResourceRepository resourceRepository;
     private final UserRepository userRepository;
     private final ShowRepository showRepository;
     private final ShowSeatRepository showSeatRepository;
-    private final AddOnRepository addOnRepository;
+    private final AddOnService addOnService;
     private final BookingAddOnRepository bookingAddOnRepository;
     private final PricingService pricingService;
+    private final SeatInventoryService seatInventoryService;
+    private final SeatStatusBroadcaster seatStatusBroadcaster;
+    private final PaymentDeadlineService paymentDeadlineService;
+    private final OutboxService outboxService;
+    private final QuoteTokenService quoteTokenService;
+    private final BookingViewRepository bookingViewRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer expiryChunkTimer;
+    private final Counter expiredBookingsCounter;
+    private final Counter releasedSeatsCounter;
+
+    @Value("${bookings.payment-expiry.chunk-size:200}")
+    private int paymentExpiryChunkSize;
 
     public BookingService(BookingRepository bookingRepository,
             BookableResourceRepository resourceRepository,
             UserRepository userRepository,
             ShowRepository showRepository,
             ShowSeatRepository showSeatRepository,
-            AddOnRepository addOnRepository,
+            AddOnService addOnService,
             BookingAddOnRepository bookingAddOnRepository,
-            PricingService pricingService) {
+            PricingService pricingService,
+            SeatInventoryService seatInventoryService,
+            SeatStatusBroadcaster seatStatusBroadcaster,
+            PaymentDeadlineService paymentDeadlineService,
+            OutboxService outboxService,
+            QuoteTokenService quoteTokenService,
+            BookingViewRepository bookingViewRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
         this.bookingRepository = bookingRepository;
         this.resourceRepository = resourceRepository;
         this.userRepository = userRepository;
         this.showRepository = showRepository;
         this.showSeatRepository = showSeatRepository;
-        this.addOnRepository = addOnRepository;
+        this.addOnService = addOnService;
         this.bookingAddOnRepository = bookingAddOnRepository;
         this.pricingService = pricingService;
+        this.seatInventoryService = seatInventoryService;
+        this.seatStatusBroadcaster = seatStatusBroadcaster;
+        this.paymentDeadlineService = paymentDeadlineService;
+        this.outboxService = outboxService;
+        this.quoteTokenService = quoteTokenService;
+        this.bookingViewRepository = bookingViewRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.expiryChunkTimer = Timer.builder("bookings.payment_expiry.chunk")
+                .description("Time to expire one chunk of unpaid bookings")
+                .register(meterRegistry);
+        this.expiredBookingsCounter = Counter.builder("bookings.payment_expiry.expired")
+                .description("Bookings expired for non-payment")
+                .register(meterRegistry);
+        this.releasedSeatsCounter = Counter.builder("bookings.payment_expiry.seats_released")
+                .description("Seats released by payment expiry")
+                .register(meterRegistry);
     }
 
     // ─── Generic Booking ─────────────────────────────────────────────────────────
 
+    /**
+     * Fills {@code reserved_tickets} for resources created before the column
+     * existed. Touches nothing once every row has a value.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillReservedTickets() {
+        int updated = resourceRepository.backfillReservedTickets();
+        if (updated > 0) {
+            logger.info("Backfilled reserved ticket counts for {} resources", updated);
+        }
+    }
+
     /**
      * Place a new generic booking for a user (Event-based, non-seated).
      */
@@ -85,18 +163,15 @@ public class BookingService {
             throw new IllegalStateException("Cannot book: Event has already started");
         }
 
-        List<Booking> existingBookings = bookingRepository.findByResourceId(request.getResourceId());
-        int currentBookedTickets = existingBookings.stream()
-                .filter(b -> b.getStatus() == BookingStatus.CONFIRMED)
-                .mapToInt(Booking::getNumberOfTickets)
-                .sum();
-
         int requestedTickets = request.getQuantity();
-        int totalCapacity = resource.getCapacity() != null ? resource.getCapacity() : Integer.MAX_VALUE;
 
-        if (currentBookedTickets + requestedTickets > totalCapacity) {
+        // Conditional increment: concurrent bookings serialize on the resource
+        // row and can never oversell, and the cost is independent of how many
+        // bookings the resource already has.
+        if (resourceRepository.reserveTickets(resource.getId(), requestedTickets) == 0) {
+            int reserved = resourceRepository.findReservedTickets(resource.getId());
             throw new IllegalStateException(
-                    "Not enough capacity. Available: " + (totalCapacity - currentBookedTickets));
+                    "Not enough capacity. Available: " + Math.max(0, resource.getCapacity() - reserved));
         }
 
         Booking booking = Booking.builder()
@@ -110,6 +185,8 @@ public class BookingService {
                 .build();
 
         Booking savedBooking = bookingRepository.save(booking);
+        outboxService.record(OutboxEvent.Type.BOOKING_CONFIRMED, savedBooking);
+        bookingViewRepository.refresh(List.of(savedBooking.getId()));
         logger.info("Booking {} created for user {} on resource {}", savedBooking.getId(), userId,
                 request.getResourceId());
 
@@ -138,25 +215,23 @@ public class BookingService {
                 HttpStatus.BAD_REQUEST, "Cannot book: Show has already ended");
         }
 
-        List<ShowSeat> showSeats = showSeatRepository.findAllById(request.getShowSeatIds());
-        if (showSeats.size() != request.getShowSeatIds().size()) {
-            throw new IllegalArgumentException("Some ShowSeat IDs were not found");
+        // Validate each seat against the in-memory inventory: must be LOCKED by
+        // this user. A refusal may only mean this node's copy is stale (the
+        // seats were locked through another node), so the seats are re-read
+        // from show_seats and checked again; markBooked below has the final say.
+        List<Long> showSeatIds = request.getShowSeatIds();
+        ShowSeatInventory inventory = seatInventoryService.get(show.getId());
+        try {
+            inventory.checkBookable(showSeatIds, userId);
+        } catch (IllegalStateException e) {
+            seatInventoryService.resync(show.getId(), showSeatIds);
+            inventory.checkBookable(showSeatIds, userId);
+            logger.info("Seat inventory of show {} was stale for {}", show.getId(), showSeatIds);
         }
 
-        // Validate each seat: must be LOCKED by this user
         BigDecimal totalPrice = BigDecimal.ZERO;
-        for (ShowSeat ss : showSeats) {
-            if (ss.getStatus() == SeatStatus.BOOKED) {
-                throw new IllegalStateException("Seat " + ss.getSeat().getSeatNumber() + " is already booked");
-            }
-            if (ss.getStatus() == SeatStatus.LOCKED && !userId.equals(ss.getLockedByUserId())) {
-                throw new IllegalStateException("Seat " + ss.getSeat().getSeatNumber() + " is locked by another user");
-            }
-            if (ss.getStatus() == SeatStatus.AVAILABLE) {
-                throw new IllegalStateException(
-                        "Seat " + ss.getSeat().getSeatNumber() + " must be locked before booking. Please lock it first.");
-            }
-            totalPrice = totalPrice.add(ss.getPrice());
+        for (Long id : showSeatIds) {
+            totalPrice = totalPrice.add(inventory.priceOf(id));
         }
 
         // ── Dynamic Pricing ───────────────────────────────────────────────────
@@ -167,14 +242,32 @@ public class BookingService {
         // Amount (which sums ShowSeat.price) automatically picks up the adjusted
         // amount. This keeps dynamic pricing additive — no schema change, no
         // extra column, no second source of truth.
+        // A valid quote token from the seat lock carries the prices the user
+        // was shown; those are charged as-is and no rule is evaluated.
         BigDecimal pricedTotal = BigDecimal.ZERO;
         LocalDateTime now = LocalDateTime.now();
-        for (ShowSeat ss : showSeats) {
-            PriceBreakdown pb = pricingService.resolve(ss.getPrice(), show.getStartTime(), now);
-            if (pb != null && pb.getEffective() != null && pb.getEffective().compareTo(ss.getPrice()) != 0) {
-                ss.setPrice(pb.getEffective());
+        java.util.Map<Long, BigDecimal> quoted =
+                quoteTokenService.verify(request.getQuoteToken(), userId, show.getId(), showSeatIds);
+        if (quoted == null && request.getQuoteToken() != null) {
+            logger.debug("Quote token for show {} not accepted; pricing seats again", show.getId());
+        }
+        // Sell-through before this booking, from the inventory's live counters
+        int occupancy = quoted == null && pricingService.usesOccupancy()
+                ? PricingService.occupancyPercent(inventory.availability())
+                : PricingService.UNKNOWN_OCCUPANCY;
+        java.util.Map<Long, BigDecimal> repriced = new java.util.HashMap<>();
+        for (Long id : showSeatIds) {
+            BigDecimal base = inventory.priceOf(id);
+            BigDecimal price = base;
+            BigDecimal effective = quoted != null
+                    ? quoted.get(id)
+                    : pricingService.resolve(base, show.getStartTime(), now, occupancy).getEffective();
+            if (effective != null && effective.compareTo(base) != 0) {
+                price = effective;
+                showSeatRepository.updatePrice(id, price);
+                repriced.put(id, price);
             }
-            pricedTotal = pricedTotal.add(ss.getPrice());
+            pricedTotal = pricedTotal.add(price);
         }
         if (pricedTotal.compareTo(totalPrice) != 0) {
             logger.info("Dynamic pricing: base ₹{} → effective ₹{}", totalPrice, pricedTotal);
@@ -185,31 +278,40 @@ public class BookingService {
         Booking booking = Booking.builder()
                 .user(user)
                 .show(show)
-                .numberOfTickets(showSeats.size())
+                .numberOfTickets(showSeatIds.size())
                 .notes(request.getNotes())
                 .status(BookingStatus.AWAITING_PAYMENT)
                 .startTime(show.getStartTime())
                 .endTime(show.getEndTime())
                 .build();
         Booking savedBooking = bookingRepository.save(booking);
-
-        // Mark all ShowSeats as BOOKED and link to booking (for release on expiry)
-        for (ShowSeat ss : showSeats) {
-            ss.setStatus(SeatStatus.BOOKED);
-            ss.setLockedAt(null);
-            ss.setLockedByUserId(null);
-            ss.setBookingId(savedBooking.getId());
+        paymentDeadlineService.register(savedBooking.getId(),
+                LocalDateTime.now().plusMinutes(PAYMENT_TIMEOUT_MINUTES));
+
+        // Mark all ShowSeats as BOOKED and link to booking (for release on expiry).
+        // One set-based UPDATE that only moves seats still LOCKED by this user;
+        // a short row count means a lock expired or was taken over underneath
+        // us, so the whole booking rolls back and the stale inventory is dropped.
+        int booked = showSeatRepository.markBooked(showSeatIds, userId, savedBooking.getId());
+        if (booked != showSeatIds.size()) {
+            seatInventoryService.afterRollback(() -> seatInventoryService.evict(show.getId()));
+            throw new IllegalStateException("One or more seats are no longer locked by you");
         }
-        showSeatRepository.saveAll(showSeats);
+        seatInventoryService.afterCommit(() -> {
+            repriced.forEach(inventory::setPrice);
+            inventory.book(showSeatIds);
+            seatStatusBroadcaster.publish(show.getId(), SeatStatus.BOOKED, showSeatIds, null);
+        });
 
         // Attach optional food/beverage/combo add-ons to this booking.
         // Snapshots the name + unit price so later catalogue price changes
         // don't retroactively rewrite the invoice for this booking.
         BigDecimal addOnTotal = persistAddOns(savedBooking.getId(), request.getAddOns());
+        bookingViewRepository.refresh(List.of(savedBooking.getId()));
 
         logger.info(
                 "Booking {} created for user {} with {} seats on show {} (seats: ₹{}, add-ons: ₹{}). Status: AWAITING_PAYMENT",
-                savedBooking.getId(), userId, showSeats.size(), request.getShowId(), totalPrice, addOnTotal);
+                savedBooking.getId(), userId, showSeatIds.size(), request.getShowId(), totalPrice, addOnTotal);
 
         initializeBookingProxies(savedBooking);
         return savedBooking;
@@ -223,24 +325,21 @@ public class BookingService {
         if (requested == null || requested.isEmpty()) {
             return BigDecimal.ZERO;
         }
+        // Validated against the cached catalogue, written with one INSERT
         BigDecimal total = BigDecimal.ZERO;
+        List<BookingAddOn> rows = new ArrayList<>(requested.size());
         for (BookingAddOnLine line : requested) {
-            AddOn addOn = addOnRepository.findById(line.getAddOnId())
-                    .orElseThrow(() -> new IllegalArgumentException(
-                            "Add-on not found: " + line.getAddOnId()));
-            if (!Boolean.TRUE.equals(addOn.getAvailable())) {
-                throw new IllegalStateException("Add-on is not available: " + addOn.getId());
-            }
-            BookingAddOn row = BookingAddOn.builder()
+            AddOn addOn = addOnService.requireAvailable(line.getAddOnId());
+            rows.add(BookingAddOn.builder()
                     .bookingId(bookingId)
                     .addOnId(addOn.getId())
                     .name(addOn.getName())
                     .unitPrice(addOn.getPrice())
                     .quantity(line.getQuantity())
-                    .build();
-            bookingAddOnRepository.save(row);
+                    .build());
             total = total.add(addOn.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
         }
+        bookingAddOnRepository.insertAll(rows);
         return total;
     }
 
@@ -262,6 +361,8 @@ public class BookingService {
 
         booking.setStatus(BookingStatus.CONFIRMED);
         Booking confirmed = bookingRepository.save(booking);
+        outboxService.record(OutboxEvent.Type.BOOKING_CONFIRMED, confirmed);
+        bookingViewRepository.refresh(List.of(bookingId));
         logger.info("Booking {} confirmed", bookingId);
         
         initializeBookingProxies(confirmed);
@@ -295,83 +396,164 @@ public class BookingService {
      */
     @Transactional
     public void releaseSeatsForBooking(Long bookingId) {
+        List<Long> showSeatIds = showSeatRepository.findIdsByBookingId(bookingId);
         int released = showSeatRepository.releaseByBookingId(bookingId);
+        seatInventoryService.afterCommit(() -> seatStatusBroadcaster.publish(
+                seatInventoryService.release(showSeatIds), SeatStatus.AVAILABLE));
         logger.info("Released {} seats for booking {}", released, bookingId);
     }
 
-    // ─── Auto-Expiry Scheduled Task ───────────────────────────────────────────────
+    // ─── Auto-Expiry ──────────────────────────────────────────────────────────────
 
     /**
-     * Runs every 5 minutes.
-     * Finds bookings stuck in AWAITING_PAYMENT for more than PAYMENT_TIMEOUT_MINUTES,
-     * releases their seats, and marks them as EXPIRED.
+     * Runs every second. Expires the AWAITING_PAYMENT bookings whose payment
+     * deadline (see {@link PaymentDeadlineService}) passed since the last
+     * tick and releases their seats. Bookings paid or cancelled in the
+     * meantime are left alone. Runs on the deadline scheduler so long jobs
+     * can't delay it.
+     */
+    @Scheduled(fixedRate = PaymentDeadlineService.TICK_MILLIS, scheduler = SchedulingConfig.DEADLINE_SCHEDULER)
+    public void expireDueBookings() {
+        List<Long> due = paymentDeadlineService.takeDue(System.currentTimeMillis());
+        int chunkSize = Math.max(1, paymentExpiryChunkSize);
+        for (int from = 0; from < due.size(); from += chunkSize) {
+            List<Long> chunk = due.subList(from, Math.min(from + chunkSize, due.size()));
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Integer expired = transactionTemplate.execute(status -> {
+                int count = expireClaimed(bookingRepository.claimAwaitingPayment(chunk));
+                paymentDeadlineService.forget(chunk);
+                return count;
+            });
+            sample.stop(expiryChunkTimer);
+            if (expired != null && expired > 0) {
+                logger.info("Payment deadline passed: expired {} bookings", expired);
+            }
+        }
+    }
+
+    /**
+     * Runs every 5 minutes as a safety net behind the deadline wheel: catches
+     * bookings whose deadline fired on a node that went away, or that were
+     * claimed elsewhere at the time. Expires bookings stuck in AWAITING_PAYMENT
+     * for more than PAYMENT_TIMEOUT_MINUTES, in chunks of
+     * {@code bookings.payment-expiry.chunk-size}.
+     *
+     * Each chunk is its own short transaction: claim the oldest expired bookings
+     * with FOR UPDATE SKIP LOCKED, then one bulk status update and one bulk seat
+     * release. A backlog after an outage never becomes one giant transaction,
+     * and nodes running the sweep at the same time split the work instead of
+     * processing the same bookings twice.
      */
     @Scheduled(fixedDelay = 5 * 60 * 1000) // every 5 minutes
-    @Transactional
     public void cancelExpiredPaymentBookings() {
         LocalDateTime cutoff = LocalDateTime.now().minusMinutes(PAYMENT_TIMEOUT_MINUTES);
-        List<Booking> expiredBookings = bookingRepository.findByStatusAndCreatedAtBefore(
-                BookingStatus.AWAITING_PAYMENT, cutoff);
-
-        if (expiredBookings.isEmpty()) return;
-
-        logger.info("Auto-expiry: found {} bookings to expire", expiredBookings.size());
+        int chunkSize = Math.max(1, paymentExpiryChunkSize);
+        long start = System.nanoTime();
+        int total = 0;
+        int claimed;
+        do {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Integer chunk = transactionTemplate.execute(status -> {
+                List<Long> bookingIds = bookingRepository.claimExpiredAwaitingPayment(cutoff, chunkSize);
+                expireClaimed(bookingIds);
+                paymentDeadlineService.forget(bookingIds);
+                return bookingIds.size();
+            });
+            sample.stop(expiryChunkTimer);
+            claimed = chunk == null ? 0 : chunk;
+            total += claimed;
+        } while (claimed == chunkSize);
+
+        if (total > 0) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            logger.info("Auto-expiry: expired {} bookings in {} ms", total, millis);
+        }
+    }
 
-        for (Booking booking : expiredBookings) {
-            releaseSeatsForBooking(booking.getId());
-            booking.setStatus(BookingStatus.EXPIRED);
-            bookingRepository.save(booking);
-            logger.info("Booking {} expired and seats released", booking.getId());
+    /**
+     * Expires bookings already claimed (row-locked) by the caller's
+     * transaction: one bulk seat release and one bulk status update.
+     */
+    private int expireClaimed(List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return 0;
         }
+        List<Long> showSeatIds = showSeatRepository.findIdsByBookingIds(bookingIds);
+        int released = showSeatRepository.releaseByBookingIds(bookingIds);
+        int expired = bookingRepository.expireAwaitingPayment(bookingIds, LocalDateTime.now());
+        outboxService.recordExpired(bookingIds);
+        bookingViewRepository.refresh(bookingIds);
+        expiredBookingsCounter.increment(expired);
+        releasedSeatsCounter.increment(released);
+        seatInventoryService.afterCommit(() -> seatStatusBroadcaster.publish(
+                seatInventoryService.release(showSeatIds), SeatStatus.AVAILABLE));
+        logger.debug("Auto-expiry chunk: {} bookings expired, {} seats released", expired, released);
+        return expired;
     }
 
     // ─── Queries ──────────────────────────────────────────────────────────────────
 
-    public List<BookingResponse> getUserBookingsFlat(Long userId) {
-        List<BookingResponse> responses = bookingRepository.findBookingResponsesByUserId(userId);
-        if (responses.isEmpty()) {
-            return responses;
+    /**
+     * Builds booking_views rows for bookings that predate the read model, in
+     * chunks, so "My bookings" shows the full history. A no-op once every
+     * booking has its row.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillBookingViews() {
+        int total = 0;
+        Integer built;
+        do {
+            built = transactionTemplate.execute(status -> bookingViewRepository.backfill(VIEW_BACKFILL_CHUNK));
+            total += built == null ? 0 : built;
+        } while (built != null && built == VIEW_BACKFILL_CHUNK);
+        if (total > 0) {
+            logger.info("Backfilled {} booking views", total);
         }
-        hydrateAddOnsAndTotals(responses);
-        return responses;
     }
 
     /**
-     * Populates seatTotal / addOnTotal / grandTotal / addOns on each response
-     * in a single batch round-trip per metric (seats + add-ons).
+     * One page of a user's bookings, newest first, keyed on
+     * {@code (createdAt, id)}: every page costs the same regardless of how
+     * far back the user scrolls. {@code cursor} is the {@code nextCursor} of
+     * the previous page, or null for the first one.
+     *
+     * Reads only booking_views, which every booking write keeps current, so a
+     * page is one indexed query with no joins or per-page aggregates.
      */
-    private void hydrateAddOnsAndTotals(List<BookingResponse> responses) {
-        List<Long> bookingIds = responses.stream()
-                .map(BookingResponse::getBookingId)
-                .toList();
-
-        java.util.Map<Long, java.math.BigDecimal> seatTotals = new java.util.HashMap<>();
-        for (Long id : bookingIds) {
-            seatTotals.put(id,
-                    bookingRepository.findTotalAmountForBooking(id)
-                            .orElse(java.math.BigDecimal.ZERO));
+    public BookingPage getUserBookingsPage(Long userId, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_BOOKINGS_PAGE_SIZE));
+        // One extra row tells us whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+        List<BookingView> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = bookingViewRepository.findByUser(userId, fetch);
+        } else {
+            BookingCursor after = BookingCursor.decode(cursor);
+            rows = bookingViewRepository.findByUserBefore(userId, after.createdAt(), after.bookingId(), fetch);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            BookingView last = rows.get(pageSize - 1);
+            nextCursor = new BookingCursor(last.getCreatedAt(), last.getBookingId()).encode();
+        }
+        List<BookingResponse> responses = new ArrayList<>(rows.size());
+        for (BookingView view : rows) {
+            responses.add(BookingResponse.fromView(view, readAddOns(view)));
         }
+        return new BookingPage(responses, nextCursor);
+    }
 
-        java.util.Map<Long, java.util.List<com.mishraachandan.booking_system.dto.pojo.BookingAddOnResponse>>
-                addOnsByBooking = bookingAddOnRepository.findByBookingIdIn(bookingIds).stream()
-                        .collect(java.util.stream.Collectors.groupingBy(
-                                BookingAddOn::getBookingId,
-                                java.util.stream.Collectors.mapping(
-                                        com.mishraachandan.booking_system.dto.pojo.BookingAddOnResponse::fromEntity,
-                                        java.util.stream.Collectors.toList())));
-
-        for (BookingResponse r : responses) {
-            Long id = r.getBookingId();
-            java.math.BigDecimal seat = seatTotals.getOrDefault(id, java.math.BigDecimal.ZERO);
-            java.util.List<com.mishraachandan.booking_system.dto.pojo.BookingAddOnResponse> lines =
-                    addOnsByBooking.getOrDefault(id, java.util.Collections.emptyList());
-            java.math.BigDecimal addOn = lines.stream()
-                    .map(com.mishraachandan.booking_system.dto.pojo.BookingAddOnResponse::getLineTotal)
-                    .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-            r.setSeatTotal(seat);
-            r.setAddOnTotal(addOn);
-            r.setGrandTotal(seat.add(addOn));
-            r.setAddOns(lines);
+    private List<BookingAddOnResponse> readAddOns(BookingView view) {
+        if (view.getAddOns() == null || view.getAddOns().isEmpty()) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(view.getAddOns(), ADD_ON_LINES);
+        } catch (JsonProcessingException e) {
+            logger.warn("Unreadable add-ons in booking view {}: {}", view.getBookingId(), e.getMessage());
+            return List.of();
         }
     }
 
@@ -393,8 +575,15 @@ public class BookingService {
             releaseSeatsForBooking(bookingId);
         }
 
+        // Give generic-event tickets back to the resource
+        if (booking.getStatus() == BookingStatus.CONFIRMED && booking.getResource() != null) {
+            resourceRepository.releaseTickets(booking.getResource().getId(), booking.getNumberOfTickets());
+        }
+
         booking.setStatus(BookingStatus.CANCELLED);
         bookingRepository.save(booking);
+        outboxService.record(OutboxEvent.Type.BOOKING_CANCELLED, booking);
+        bookingViewRepository.refresh(List.of(bookingId));
         logger.info("Booking {} cancelled by user {}", bookingId, userId);
     }
 
@@ -436,4 +625,24 @@ public class BookingService {
             org.hibernate.Hibernate.initialize(booking.getResource());
         }
     }
+
+    /** Position in a user's booking history: {@code (createdAt, id)} of the last row returned. */
+    private record BookingCursor(LocalDateTime createdAt, Long bookingId) {
+
+        String encode() {
+            String raw = createdAt + "|" + bookingId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static BookingCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new BookingCursor(LocalDateTime.parse(raw.substring(0, sep)),
+                        Long.valueOf(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+            }
+        }
+    }
 }
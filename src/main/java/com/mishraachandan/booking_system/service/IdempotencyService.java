@@ -0,0 +1,220 @@
+package com.mishraachandan.booking_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mishraachandan.booking_system.dto.entity.IdempotencyRecord;
+import com.mishraachandan.booking_system.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} handling for non-idempotent POST endpoints.
+ *
+ * The first request with a key claims an IN_PROGRESS row (unique on user,
+ * scope and key) in its own transaction, runs, and stores the status and
+ * JSON body it answered with. Retries with the same key get that stored
+ * response back without running the endpoint again; a duplicate that
+ * arrives while the first is still running waits for it, on any node, for
+ * up to {@link #WAIT_MILLIS}. A key reused with a different body is
+ * rejected with 422.
+ *
+ * Failures are not remembered: if the endpoint throws or answers 5xx the
+ * claim is dropped and the client may retry with the same key. Records
+ * expire after {@code idempotency.ttl-hours}.
+ *
+ * A claim still IN_PROGRESS after {@link #ABANDONED_AFTER} is never taken
+ * over: its action may well have committed before the response could be
+ * stored (node crash, failed write of the record), and running it again
+ * would book or charge twice. Such keys answer 409 until they expire.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long WAIT_MILLIS = 10_000;
+    private static final long POLL_MILLIS = 50;
+    // An IN_PROGRESS claim older than this belongs to a request that died;
+    // whether its action committed is unknown
+    private static final Duration ABANDONED_AFTER = Duration.ofMinutes(2);
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager) {
+        this.recordRepository = recordRepository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Runs {@code action} at most once per {@code (userId, scope, key)}.
+     * Without a key the action simply runs.
+     *
+     * @param request the request body, used to detect a key being reused for a different request
+     */
+    public ResponseEntity<?> execute(Long userId, String scope, String key, Object request,
+                                     Supplier<ResponseEntity<?>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", HEADER + " must be at most " + MAX_KEY_LENGTH + " characters"));
+        }
+        String requestHash = hash(request);
+        long waitUntil = System.currentTimeMillis() + WAIT_MILLIS;
+
+        while (true) {
+            IdempotencyRecord claimed = tryClaim(userId, scope, key, requestHash);
+            if (claimed != null) {
+                return runAndRecord(claimed, action);
+            }
+
+            Optional<IdempotencyRecord> existing = transactionTemplate.execute(status ->
+                    recordRepository.findByUserIdAndScopeAndIdempotencyKey(userId, scope, key));
+            // Empty: released between our insert and read. Expired: deleted.
+            // Either way claim again, but only after the same wait as below.
+            if (existing != null && existing.isPresent()) {
+                IdempotencyRecord record = existing.get();
+                if (!record.getRequestHash().equals(requestHash)) {
+                    return ResponseEntity.unprocessableEntity()
+                            .body(Map.of("error", HEADER + " was already used for a different request"));
+                }
+                if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+                    delete(record);
+                } else if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                    return replay(record);
+                } else if (record.getCreatedAt() != null
+                        && record.getCreatedAt().isBefore(LocalDateTime.now().minus(ABANDONED_AFTER))) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("error", "A request with this " + HEADER
+                                    + " did not finish and its outcome is unknown; check before retrying with a new key"));
+                }
+            }
+            if (System.currentTimeMillis() >= waitUntil) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("error", "A request with this " + HEADER + " is still being processed"));
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+            }
+        }
+    }
+
+    /** Hourly: drops records past their TTL. */
+    @Scheduled(fixedDelay = 60 * 60 * 1000)
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status -> recordRepository.deleteExpired(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired idempotency records", purged);
+        }
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────────
+
+    /** Inserts the IN_PROGRESS claim; null when the key is already taken. */
+    private IdempotencyRecord tryClaim(Long userId, String scope, String key, String requestHash) {
+        IdempotencyRecord record = IdempotencyRecord.builder()
+                .userId(userId)
+                .scope(scope)
+                .idempotencyKey(key)
+                .requestHash(requestHash)
+                .status(IdempotencyRecord.Status.IN_PROGRESS)
+                .expiresAt(LocalDateTime.now().plusHours(ttlHours))
+                .build();
+        try {
+            return transactionTemplate.execute(status -> recordRepository.saveAndFlush(record));
+        } catch (DataIntegrityViolationException e) {
+            return null;
+        }
+    }
+
+    private ResponseEntity<?> runAndRecord(IdempotencyRecord record, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            delete(record);
+            throw e;
+        }
+        if (response.getStatusCode().is5xxServerError()) {
+            delete(record);
+            return response;
+        }
+        String body;
+        try {
+            body = response.getBody() == null ? null : objectMapper.writeValueAsString(response.getBody());
+        } catch (JsonProcessingException e) {
+            // The action has run: keep the claim so a retry gets 409 instead of running it again
+            logger.error("Idempotency record {} not stored: {}", record.getId(), e.getMessage());
+            return response;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    recordRepository.complete(record.getId(), response.getStatusCode().value(), body));
+        } catch (RuntimeException e) {
+            // Same: the claim stays IN_PROGRESS and the caller still gets the real answer
+            logger.error("Idempotency record {} not completed: {}", record.getId(), e.getMessage());
+        }
+        return response;
+    }
+
+    private ResponseEntity<?> replay(IdempotencyRecord record) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(record.getResponseStatus())
+                .header(REPLAYED_HEADER, "true");
+        if (record.getResponseBody() == null) {
+            return builder.build();
+        }
+        return builder.contentType(MediaType.APPLICATION_JSON).body(record.getResponseBody());
+    }
+
+    private void delete(IdempotencyRecord record) {
+        transactionTemplate.executeWithoutResult(status ->
+                recordRepository.deleteByIdAndStatus(record.getId(), record.getStatus()));
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request body cannot be serialized", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
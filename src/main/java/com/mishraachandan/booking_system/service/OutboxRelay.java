@@ -0,0 +1,132 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.OutboxEvent;
+import com.mishraachandan.booking_system.dto.pojo.BookingLifecycleEvent;
+import com.mishraachandan.booking_system.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox events to in-process subscribers as
+ * {@link BookingLifecycleEvent}s.
+ *
+ * Every second the relay claims the oldest unpublished rows in batches of
+ * {@code outbox.relay.batch-size}, publishes them in id order and marks the
+ * delivered ones in one UPDATE. Each batch transaction first takes a
+ * Postgres advisory lock ({@link #RELAY_LOCK_KEY}), so across all nodes only
+ * one batch is in flight at a time and the next one starts after it commits;
+ * a node that finds the lock taken skips that run. When a subscriber throws,
+ * the batch stops at that event; it and everything after it stay
+ * unpublished and are retried on the next run, which keeps delivery ordered
+ * and at-least-once.
+ *
+ * Metrics: {@code bookings.outbox.relayed}, {@code bookings.outbox.failures}
+ * and {@code bookings.outbox.lag.seconds} — the age of the oldest
+ * undelivered event after each run.
+ */
+@Service
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    // Delivered events are kept this long for inspection, then purged
+    private static final Duration PUBLISHED_RETENTION = Duration.ofDays(7);
+    // Advisory lock serialising relay batches across nodes ("outbox" in ASCII)
+    private static final long RELAY_LOCK_KEY = 0x6f7574626f78L;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter relayedCounter;
+    private final Counter failureCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       ApplicationEventPublisher eventPublisher,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayedCounter = Counter.builder("bookings.outbox.relayed")
+                .description("Outbox events delivered to subscribers")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("bookings.outbox.failures")
+                .description("Outbox deliveries that failed and will be retried")
+                .register(meterRegistry);
+        Gauge.builder("bookings.outbox.lag.seconds", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest undelivered outbox event")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void relay() {
+        int size = Math.max(1, batchSize);
+        boolean more = true;
+        while (more) {
+            Integer delivered = transactionTemplate.execute(status -> relayBatch(size));
+            // Stop on a short batch, when a subscriber failed mid-batch or
+            // when another node is relaying
+            more = delivered != null && delivered == size;
+        }
+        LocalDateTime oldest = outboxEventRepository.findOldestUnpublishedCreatedAt();
+        lagSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    /** Runs daily: purges delivered events past their retention. */
+    @Scheduled(fixedDelay = 24 * 60 * 60 * 1000, initialDelay = 60_000)
+    public void purgePublished() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(PUBLISHED_RETENTION)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    /**
+     * Delivers one claimed batch; returns how many events were delivered, or
+     * -1 when another node holds the relay lock.
+     */
+    private int relayBatch(int size) {
+        if (!outboxEventRepository.tryAdvisoryXactLock(RELAY_LOCK_KEY)) {
+            return -1;
+        }
+        List<OutboxEvent> batch = outboxEventRepository.claimUnpublished(size);
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                eventPublisher.publishEvent(new BookingLifecycleEvent(event.getId(), event.getEventType(),
+                        event.getBookingId(), event.getPayload(), event.getCreatedAt()));
+            } catch (RuntimeException e) {
+                failureCounter.increment();
+                logger.warn("Outbox event {} ({}) not delivered, will retry: {}",
+                        event.getId(), event.getEventType(), e.getMessage());
+                break;
+            }
+            delivered.add(event.getId());
+        }
+        if (!delivered.isEmpty()) {
+            outboxEventRepository.markPublished(delivered, LocalDateTime.now());
+            relayedCounter.increment(delivered.size());
+        }
+        return delivered.size();
+    }
+}
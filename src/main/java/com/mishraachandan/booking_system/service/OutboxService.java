@@ -0,0 +1,65 @@
+package com.mishraachandan.booking_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mishraachandan.booking_system.dto.entity.Booking;
+import com.mishraachandan.booking_system.dto.entity.OutboxEvent;
+import com.mishraachandan.booking_system.repository.OutboxEventRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes booking lifecycle events to the outbox. Every method must run
+ * inside the transaction that makes the state change, so the event exists
+ * if and only if the change committed; {@link OutboxRelay} delivers it.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxService(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(OutboxEvent.Type type, Booking booking) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(type)
+                .bookingId(booking.getId())
+                .payload(payload(booking))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    /** BOOKING_EXPIRED for a chunk of bookings already moved to EXPIRED, in one statement. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordExpired(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            outboxEventRepository.insertExpiredEvents(bookingIds, LocalDateTime.now());
+        }
+    }
+
+    private String payload(Booking booking) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("bookingId", booking.getId());
+        fields.put("status", booking.getStatus());
+        fields.put("userId", booking.getUser() != null ? booking.getUser().getId() : null);
+        fields.put("showId", booking.getShow() != null ? booking.getShow().getId() : null);
+        fields.put("resourceId", booking.getResource() != null ? booking.getResource().getId() : null);
+        fields.put("numberOfTickets", booking.getNumberOfTickets());
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Outbox payload for booking " + booking.getId() + " not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.BookingDeadline;
+import com.mishraachandan.booking_system.repository.BookingDeadlineRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Persistent delay queue of booking payment deadlines.
+ *
+ * Each deadline is stored in {@code booking_deadlines} in the booking's own
+ * transaction and, once that commits, placed on a 1-second
+ * {@link TimingWheel}. {@code BookingService} turns the wheel every second
+ * and expires the bookings that came due, so seats go back on sale within a
+ * second of the deadline instead of waiting for the next sweep. Pending
+ * deadlines are reloaded from the table on startup; ones that passed while
+ * the node was down come due on the first tick.
+ *
+ * The wheel is per node. Bookings confirmed or cancelled before their
+ * deadline are simply skipped when it fires (the expiry UPDATE only matches
+ * AWAITING_PAYMENT), and the periodic sweep stays as a safety net.
+ */
+@Service
+public class PaymentDeadlineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentDeadlineService.class);
+
+    static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+
+    private final BookingDeadlineRepository deadlineRepository;
+    // Items are bookingIds
+    private final TimingWheel<Long> deadlines =
+            new TimingWheel<>(TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    public PaymentDeadlineService(BookingDeadlineRepository deadlineRepository) {
+        this.deadlineRepository = deadlineRepository;
+    }
+
+    /**
+     * Records the payment deadline of a booking. Must run inside the
+     * transaction that creates the booking; the deadline is armed only if
+     * that transaction commits.
+     */
+    public void register(Long bookingId, LocalDateTime dueAt) {
+        deadlineRepository.save(BookingDeadline.builder().bookingId(bookingId).dueAt(dueAt).build());
+        long dueMillis = toEpochMillis(dueAt);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deadlines.schedule(bookingId, dueMillis);
+                }
+            });
+        } else {
+            deadlines.schedule(bookingId, dueMillis);
+        }
+    }
+
+    /** Turns the wheel to {@code nowMillis}; returns the bookingIds whose deadline has passed. */
+    public List<Long> takeDue(long nowMillis) {
+        return deadlines.advance(nowMillis);
+    }
+
+    /** Deletes handled deadlines; joins the caller's transaction. */
+    public void forget(Collection<Long> bookingIds) {
+        if (!bookingIds.isEmpty()) {
+            deadlineRepository.deleteAllByIdInBatch(bookingIds);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadPendingDeadlines() {
+        List<Object[]> rows;
+        try {
+            rows = deadlineRepository.findAllPending();
+        } catch (Exception e) {
+            logger.warn("Payment deadlines not reloaded: {}", e.getMessage());
+            return;
+        }
+        for (Object[] row : rows) {
+            deadlines.schedule((Long) row[0], toEpochMillis((LocalDateTime) row[1]));
+        }
+        if (!rows.isEmpty()) {
+            logger.info("Reloaded {} pending payment deadlines", rows.size());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
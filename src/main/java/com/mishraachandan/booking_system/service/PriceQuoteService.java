@@ -0,0 +1,174 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.pojo.SeatPriceQuote;
+import com.mishraachandan.booking_system.dto.pojo.ShowAvailability;
+import com.mishraachandan.booking_system.dto.pojo.ShowPriceQuote;
+import com.mishraachandan.booking_system.dto.status.SeatType;
+import com.mishraachandan.booking_system.repository.ShowSeatRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Batch price quotes for the seat selection and listing pages.
+ *
+ * A show's multiplier depends only on its start time, the current lead-time
+ * hour and the active rules, so a quote is computed once per show and kept
+ * until its {@code validUntil} passes or the rules change
+ * ({@link PricingService#rulesVersion()}) or, when a rule looks at occupancy,
+ * the show's sell-through moves. Misses for a whole batch of shows are filled
+ * with one grouped query over their unsold seats.
+ *
+ * Seat prices are what {@link BookingService} charges for the same seat at
+ * the same moment, so the seat page can show real prices without calling the
+ * admin preview per seat. Seats just locked get a {@link SeatPriceQuote}
+ * whose signed token lets the booking charge those prices without pricing
+ * them again ({@link QuoteTokenService}).
+ */
+@Service
+public class PriceQuoteService {
+
+    private final ShowSeatRepository showSeatRepository;
+    private final PricingService pricingService;
+    private final SeatInventoryService seatInventoryService;
+    private final QuoteTokenService quoteTokenService;
+
+    private final Map<Long, CachedQuote> quotes = new ConcurrentHashMap<>();
+
+    public PriceQuoteService(ShowSeatRepository showSeatRepository,
+                             PricingService pricingService,
+                             SeatInventoryService seatInventoryService,
+                             QuoteTokenService quoteTokenService) {
+        this.showSeatRepository = showSeatRepository;
+        this.pricingService = pricingService;
+        this.seatInventoryService = seatInventoryService;
+        this.quoteTokenService = quoteTokenService;
+    }
+
+    /**
+     * Quotes for many shows, in request order. Shows that don't exist or have
+     * no unsold seats are left out.
+     */
+    public List<ShowPriceQuote> quote(List<Long> showIds) {
+        LocalDateTime now = LocalDateTime.now();
+        long rulesVersion = pricingService.rulesVersion();
+        Map<Long, Integer> occupancy = occupancy(showIds);
+
+        Map<Long, ShowPriceQuote> result = new LinkedHashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long showId : showIds) {
+            CachedQuote cached = quotes.get(showId);
+            if (cached != null && cached.isValid(rulesVersion, now)
+                    && cached.occupancyPercent() == occupancyOf(occupancy, showId)) {
+                result.put(showId, cached.quote());
+            } else {
+                result.put(showId, null);
+                misses.add(showId);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (ShowPriceQuote fresh : load(misses, now, occupancy)) {
+                quotes.put(fresh.getShowId(),
+                        new CachedQuote(fresh, rulesVersion, occupancyOf(occupancy, fresh.getShowId())));
+                result.put(fresh.getShowId(), fresh);
+            }
+        }
+        return result.values().stream().filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Prices of seats {@code userId} has just locked, signed for the length
+     * of the lock. Null if the show has nothing left to quote.
+     */
+    public SeatPriceQuote quoteSeats(Long showId, List<Long> showSeatIds, Long userId) {
+        List<ShowPriceQuote> showQuote = quote(List.of(showId));
+        if (showQuote.isEmpty()) {
+            return null;
+        }
+        BigDecimal multiplier = showQuote.get(0).getMultiplier();
+        ShowSeatInventory inventory = seatInventoryService.get(showId);
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (Long id : showSeatIds) {
+            BigDecimal base = inventory.priceOf(id);
+            if (base == null) {
+                return null;
+            }
+            BigDecimal price = base.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+            prices.put(id, price);
+            total = total.add(price);
+        }
+        long expiresAtMillis = System.currentTimeMillis() + ShowSeatLockService.LOCK_TIMEOUT_MILLIS;
+        return new SeatPriceQuote(quoteTokenService.issue(userId, showId, prices, expiresAtMillis), prices, total,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(expiresAtMillis), ZoneId.systemDefault()));
+    }
+
+    /** Runs every 10 minutes: drops quotes that can no longer be served. */
+    @Scheduled(fixedRate = 10 * 60_000)
+    public void purgeStaleQuotes() {
+        LocalDateTime now = LocalDateTime.now();
+        long rulesVersion = pricingService.rulesVersion();
+        quotes.values().removeIf(c -> !c.isValid(rulesVersion, now) || c.quote().getShowStart().isBefore(now));
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────────
+
+    /**
+     * Sell-through per show, only when some rule depends on it; loaded shows
+     * answer from their in-memory counters.
+     */
+    private Map<Long, Integer> occupancy(List<Long> showIds) {
+        if (!pricingService.usesOccupancy()) {
+            return Map.of();
+        }
+        Map<Long, Integer> out = new HashMap<>();
+        for (ShowAvailability a : seatInventoryService.availability(showIds)) {
+            out.put(a.getShowId(), PricingService.occupancyPercent(a));
+        }
+        return out;
+    }
+
+    private static int occupancyOf(Map<Long, Integer> occupancy, Long showId) {
+        return occupancy.getOrDefault(showId, PricingService.UNKNOWN_OCCUPANCY);
+    }
+
+    private List<ShowPriceQuote> load(List<Long> showIds, LocalDateTime now, Map<Long, Integer> occupancy) {
+        Map<Long, ShowPriceQuote> byShow = new LinkedHashMap<>();
+        for (Object[] row : showSeatRepository.findPriceTiers(showIds)) {
+            Long showId = (Long) row[0];
+            LocalDateTime showStart = (LocalDateTime) row[1];
+            SeatType seatType = (SeatType) row[2];
+            BigDecimal basePrice = (BigDecimal) row[3];
+            ShowPriceQuote quote = byShow.computeIfAbsent(showId, id -> {
+                PricingService.Multiplier m = pricingService.multiplierFor(showStart, now, occupancyOf(occupancy, id));
+                return new ShowPriceQuote(id, showStart, m.factor(), m.appliedRules(),
+                        PricingService.validUntil(showStart, now), new ArrayList<>());
+            });
+            BigDecimal effective = basePrice == null ? null
+                    : basePrice.multiply(quote.getMultiplier()).setScale(2, RoundingMode.HALF_UP);
+            quote.getPrices().add(new ShowPriceQuote.Tier(seatType.name(), basePrice, effective));
+        }
+        return new ArrayList<>(byShow.values());
+    }
+
+    private record CachedQuote(ShowPriceQuote quote, long rulesVersion, int occupancyPercent) {
+
+        boolean isValid(long currentRulesVersion, LocalDateTime now) {
+            return rulesVersion == currentRulesVersion
+                    && (quote.getValidUntil() == null || !now.isAfter(quote.getValidUntil()));
+        }
+    }
+}
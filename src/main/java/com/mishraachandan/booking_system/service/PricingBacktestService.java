@@ -0,0 +1,278 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.PricingRule;
+import com.mishraachandan.booking_system.dto.pojo.PricingBacktestResponse;
+import com.mishraachandan.booking_system.repository.BookingRepository;
+import com.mishraachandan.booking_system.repository.PricingRuleRepository;
+import com.mishraachandan.booking_system.repository.ShowSeatRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replays a pricing rule set over past CONFIRMED bookings to show what it
+ * would have done to seat revenue, before {@code pricing.dynamic.enabled} is
+ * switched on.
+ *
+ * Bookings are read in keyset chunks of {@link #CHUNK_BOOKINGS} as plain
+ * scalar rows (no entities), and each chunk is priced on a dedicated
+ * fork-join pool of {@link #PARALLELISM} threads while the next chunk is
+ * being read. One backtest runs at a time per instance, so an admin can't
+ * take the booking path's CPU and connections away with a burst of them. A booking is priced as it would have been at its creation time:
+ * same show day and hour, same whole-hour lead time. Historical occupancy is
+ * not known, so rules on occupancy never match here.
+ *
+ * Seat prices are taken from show_seats, i.e. what was actually charged, so
+ * the backtest is meaningful while dynamic pricing is still off.
+ */
+@Service
+public class PricingBacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingBacktestService.class);
+
+    private static final int CHUNK_BOOKINGS = 5_000;
+    // Bookings one fork-join task prices without splitting further
+    private static final int BOOKINGS_PER_TASK = 256;
+    // Half the cores, at most 4: leaves the rest for serving bookings
+    private static final int PARALLELISM =
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2));
+
+    private final BookingRepository bookingRepository;
+    private final ShowSeatRepository showSeatRepository;
+    private final PricingRuleRepository pricingRuleRepository;
+
+    private final ForkJoinPool pool = new ForkJoinPool(PARALLELISM);
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PricingBacktestService(BookingRepository bookingRepository,
+                                  ShowSeatRepository showSeatRepository,
+                                  PricingRuleRepository pricingRuleRepository) {
+        this.bookingRepository = bookingRepository;
+        this.showSeatRepository = showSeatRepository;
+        this.pricingRuleRepository = pricingRuleRepository;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * @param candidates rules to replay, or null for the currently active ones;
+     *                   inactive candidates are ignored
+     * @return the result, or null when another backtest is already running
+     */
+    @Transactional(readOnly = true)
+    public PricingBacktestResponse run(LocalDateTime from, LocalDateTime to, List<PricingRule> candidates) {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            return replay(from, to, candidates);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private PricingBacktestResponse replay(LocalDateTime from, LocalDateTime to, List<PricingRule> candidates) {
+        long started = System.currentTimeMillis();
+        List<PricingRule> ruleList = candidates == null
+                ? pricingRuleRepository.findByActiveTrueOrderByPriorityAsc()
+                : candidates.stream()
+                        .filter(r -> !Boolean.FALSE.equals(r.getActive()))
+                        .sorted(Comparator.comparingInt(r -> r.getPriority() == null ? 100 : r.getPriority()))
+                        .toList();
+        PricingService.CompiledRule[] rules = PricingService.compile(ruleList);
+
+        Totals totals = new Totals(rules.length);
+        Chunk chunk = nextChunk(from, to, 0L);
+        while (chunk != null) {
+            ForkJoinTask<Totals> priced = pool.submit(new PriceTask(chunk, rules, 0, chunk.size()));
+            // Read the next chunk while this one is being priced
+            Chunk next = nextChunk(from, to, chunk.lastBookingId());
+            totals.add(priced.join());
+            chunk = next;
+        }
+
+        List<PricingBacktestResponse.RuleImpact> impacts = new ArrayList<>(rules.length);
+        for (int i = 0; i < rules.length; i++) {
+            impacts.add(new PricingBacktestResponse.RuleImpact(rules[i].name(), rules[i].multiplier(),
+                    totals.ruleBookings[i], totals.ruleSeats[i], money(totals.ruleDeltas[i])));
+        }
+        long elapsed = System.currentTimeMillis() - started;
+        logger.info("Pricing backtest over {} bookings / {} seats with {} rules took {} ms",
+                totals.bookings, totals.seats, rules.length, elapsed);
+        return new PricingBacktestResponse(from, to, totals.bookings, totals.seats,
+                money(totals.base), money(totals.projected), money(totals.projected.subtract(totals.base)),
+                impacts, elapsed);
+    }
+
+    // ─── Chunks ───────────────────────────────────────────────────────────────────
+
+    /** Next chunk after {@code afterId}, flattened into arrays; null when done. */
+    private Chunk nextChunk(LocalDateTime from, LocalDateTime to, long afterId) {
+        List<Long> ids = bookingRepository.findConfirmedIdsCreatedBetween(from, to, afterId,
+                Limit.of(CHUNK_BOOKINGS));
+        if (ids.isEmpty()) {
+            return null;
+        }
+        List<Object[]> rows = showSeatRepository.findPricingHistory(ids);
+
+        int[] seatStart = new int[ids.size() + 1];
+        int[] dayBits = new int[ids.size()];
+        int[] hours = new int[ids.size()];
+        long[] leadHours = new long[ids.size()];
+        BigDecimal[] prices = new BigDecimal[rows.size()];
+        int bookings = 0;
+        Long current = null;
+        for (int s = 0; s < rows.size(); s++) {
+            Object[] row = rows.get(s);
+            Long bookingId = (Long) row[0];
+            if (!bookingId.equals(current)) {
+                current = bookingId;
+                LocalDateTime createdAt = (LocalDateTime) row[1];
+                LocalDateTime showStart = (LocalDateTime) row[2];
+                seatStart[bookings] = s;
+                dayBits[bookings] = 1 << (showStart.getDayOfWeek().getValue() - 1);
+                hours[bookings] = showStart.getHour();
+                leadHours[bookings] = createdAt == null ? 0L
+                        : Math.max(0L, ChronoUnit.HOURS.between(createdAt, showStart));
+                bookings++;
+            }
+            prices[s] = row[3] == null ? BigDecimal.ZERO : (BigDecimal) row[3];
+        }
+        seatStart[bookings] = rows.size();
+        return new Chunk(ids.get(ids.size() - 1), bookings, Arrays.copyOf(seatStart, bookings + 1),
+                dayBits, hours, leadHours, prices);
+    }
+
+    /**
+     * One chunk of bookings: booking {@code b} owns seats
+     * {@code [seatStart[b], seatStart[b + 1])} of {@code prices}.
+     */
+    private record Chunk(long lastBookingId, int size, int[] seatStart, int[] dayBits, int[] hours,
+                         long[] leadHours, BigDecimal[] prices) {
+    }
+
+    // ─── Pricing ──────────────────────────────────────────────────────────────────
+
+    private static final class PriceTask extends RecursiveTask<Totals> {
+
+        private final Chunk chunk;
+        private final PricingService.CompiledRule[] rules;
+        private final int from;
+        private final int to;
+
+        private PriceTask(Chunk chunk, PricingService.CompiledRule[] rules, int from, int to) {
+            this.chunk = chunk;
+            this.rules = rules;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > BOOKINGS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                PriceTask left = new PriceTask(chunk, rules, from, mid);
+                left.fork();
+                Totals right = new PriceTask(chunk, rules, mid, to).compute();
+                right.add(left.join());
+                return right;
+            }
+            Totals totals = new Totals(rules.length);
+            for (int b = from; b < to; b++) {
+                price(b, totals);
+            }
+            return totals;
+        }
+
+        private void price(int b, Totals totals) {
+            int first = chunk.seatStart()[b];
+            int end = chunk.seatStart()[b + 1];
+            BigDecimal base = BigDecimal.ZERO;
+            for (int s = first; s < end; s++) {
+                base = base.add(chunk.prices()[s]);
+            }
+
+            // Attribute each rule's effect on top of the rules before it
+            BigDecimal running = base;
+            BigDecimal factor = BigDecimal.ONE;
+            for (int i = 0; i < rules.length; i++) {
+                PricingService.CompiledRule r = rules[i];
+                if (r.matches(chunk.dayBits()[b], chunk.hours()[b], chunk.leadHours()[b],
+                        PricingService.UNKNOWN_OCCUPANCY)) {
+                    BigDecimal next = running.multiply(r.multiplier());
+                    totals.ruleDeltas[i] = totals.ruleDeltas[i].add(next.subtract(running));
+                    totals.ruleBookings[i]++;
+                    totals.ruleSeats[i] += end - first;
+                    running = next;
+                    factor = factor.multiply(r.multiplier());
+                }
+            }
+
+            BigDecimal projected = base;
+            if (factor.compareTo(BigDecimal.ONE) != 0) {
+                // Same per-seat rounding as PricingService.resolve
+                projected = BigDecimal.ZERO;
+                for (int s = first; s < end; s++) {
+                    projected = projected.add(chunk.prices()[s].multiply(factor).setScale(2, RoundingMode.HALF_UP));
+                }
+            }
+            totals.bookings++;
+            totals.seats += end - first;
+            totals.base = totals.base.add(base);
+            totals.projected = totals.projected.add(projected);
+        }
+    }
+
+    /** Running sums for one task; merged up the fork-join tree. */
+    private static final class Totals {
+        private long bookings;
+        private long seats;
+        private BigDecimal base = BigDecimal.ZERO;
+        private BigDecimal projected = BigDecimal.ZERO;
+        private final BigDecimal[] ruleDeltas;
+        private final long[] ruleBookings;
+        private final long[] ruleSeats;
+
+        private Totals(int ruleCount) {
+            ruleDeltas = new BigDecimal[ruleCount];
+            Arrays.fill(ruleDeltas, BigDecimal.ZERO);
+            ruleBookings = new long[ruleCount];
+            ruleSeats = new long[ruleCount];
+        }
+
+        private void add(Totals other) {
+            bookings += other.bookings;
+            seats += other.seats;
+            base = base.add(other.base);
+            projected = projected.add(other.projected);
+            for (int i = 0; i < ruleDeltas.length; i++) {
+                ruleDeltas[i] = ruleDeltas[i].add(other.ruleDeltas[i]);
+                ruleBookings[i] += other.ruleBookings[i];
+                ruleSeats[i] += other.ruleSeats[i];
+            }
+        }
+    }
+
+    private static BigDecimal money(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -2,6 +2,7 @@ package com.mishraachandan.booking_system.service;
 
 import com.mishraachandan.booking_system.dto.entity.PricingRule;
 import com.mishraachandan.booking_system.dto.pojo.PriceBreakdown;
+import com.mishraachandan.booking_system.dto.pojo.ShowAvailability;
 import com.mishraachandan.booking_system.repository.PricingRuleRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -11,13 +12,15 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.DayOfWeek;
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Applies table-driven dynamic pricing rules on top of a base seat price.
@@ -29,18 +32,45 @@ import java.util.Set;
  *   2. If no rules are active, the resolver also returns a pass-through.
  *   3. Individual rule matching failures are swallowed and logged — a single
  *      bad rule cannot break the booking flow.
+ *
+ * Active rules are compiled into an immutable {@link RuleSet} (day bitmasks,
+ * hour, lead-time and occupancy bounds as primitives) that is swapped in as a whole, so
+ * resolving a price never touches the database. {@code PricingRuleController}
+ * calls {@link #reloadRules()} after every change; rules edited elsewhere are
+ * picked up after {@link #RULES_TTL_MILLIS}. A stale snapshot is reloaded by
+ * one caller while the others keep pricing with it, and a failed reload
+ * keeps it for another TTL, so neither an expiry nor a database outage
+ * sends every booking to the database at once.
+ *
+ * The combined multiplier depends only on the show's day and hour, the
+ * whole-hour lead time and the show's occupancy, so each RuleSet memoises it
+ * per (day, hour, lead, occupancy) and every seat of a show shares one
+ * computation. Occupancy is passed in by the caller from the show's live
+ * in-memory seat counters ({@link #occupancyPercent(ShowAvailability)}), so
+ * occupancy rules add no query to the booking path.
  */
 @Service
 public class PricingService {
 
     private static final Logger logger = LoggerFactory.getLogger(PricingService.class);
     private static final BigDecimal ZERO = BigDecimal.ZERO;
+    private static final long RULES_TTL_MILLIS = 60_000;
+    // Bound on memoised multipliers per RuleSet; cleared wholesale when reached
+    private static final int MAX_MEMOISED_MULTIPLIERS = 50_000;
+    /** Occupancy for callers that don't know it; occupancy rules never match it. */
+    public static final int UNKNOWN_OCCUPANCY = -1;
+    private static final Multiplier IDENTITY = new Multiplier(BigDecimal.ONE, List.of());
 
     private final PricingRuleRepository pricingRuleRepository;
 
     @Value("${pricing.dynamic.enabled:false}")
     private boolean enabled;
 
+    private final AtomicLong ruleVersions = new AtomicLong();
+    private volatile RuleSet ruleSet;
+    // Held by whoever is reloading; TTL reloads only try it
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
     public PricingService(PricingRuleRepository pricingRuleRepository) {
         this.pricingRuleRepository = pricingRuleRepository;
     }
@@ -51,101 +81,302 @@ public class PricingService {
 
     /**
      * Resolves effective price for a seat whose base price is {@code base} on a
-     * show that starts at {@code showStart}, evaluated at {@code at}.
+     * show that starts at {@code showStart}, evaluated at {@code at}, without
+     * knowing how full the show is.
      */
     public PriceBreakdown resolve(BigDecimal base, LocalDateTime showStart, LocalDateTime at) {
+        return resolve(base, showStart, at, UNKNOWN_OCCUPANCY);
+    }
+
+    /**
+     * As {@link #resolve(BigDecimal, LocalDateTime, LocalDateTime)}, for a show
+     * that is {@code occupancyPercent} sold.
+     */
+    public PriceBreakdown resolve(BigDecimal base, LocalDateTime showStart, LocalDateTime at,
+                                  int occupancyPercent) {
         if (base == null) {
             return PriceBreakdown.passthrough(ZERO);
         }
         if (!enabled) {
             return PriceBreakdown.passthrough(base);
         }
-        List<PricingRule> rules;
+        RuleSet current = rules();
+        if (current == null || current.rules().length == 0) {
+            return PriceBreakdown.passthrough(base);
+        }
+        Multiplier m = multiplierFor(current, showStart, at, occupancyPercent);
+        BigDecimal effective = base.multiply(m.factor()).setScale(2, RoundingMode.HALF_UP);
+        return new PriceBreakdown(base, effective, m.appliedRules());
+    }
+
+    /**
+     * Combined multiplier of the rules matching a show that starts at
+     * {@code showStart} and is {@code occupancyPercent} sold, evaluated at
+     * {@code at}; identity when dynamic pricing is off or no rules are active.
+     * It holds until {@link #validUntil(LocalDateTime, LocalDateTime)}, the
+     * next rule change or, if {@link #usesOccupancy()}, the next sale.
+     */
+    public Multiplier multiplierFor(LocalDateTime showStart, LocalDateTime at, int occupancyPercent) {
+        if (!enabled) {
+            return IDENTITY;
+        }
+        RuleSet current = rules();
+        if (current == null || current.rules().length == 0) {
+            return IDENTITY;
+        }
+        return multiplierFor(current, showStart, at, occupancyPercent);
+    }
+
+    /**
+     * True when an active rule has an occupancy condition, i.e. when callers
+     * need to look up a show's occupancy at all.
+     */
+    public boolean usesOccupancy() {
+        if (!enabled) {
+            return false;
+        }
+        RuleSet current = rules();
+        return current != null && current.usesOccupancy();
+    }
+
+    /** Sell-through of a show in whole percent: booked seats over all seats. */
+    public static int occupancyPercent(ShowAvailability availability) {
+        if (availability == null || availability.getTotalSeats() <= 0) {
+            return 0;
+        }
+        return (int) ((long) availability.getBooked() * 100 / availability.getTotalSeats());
+    }
+
+    /**
+     * Last instant at which the lead time of a show starting at
+     * {@code showStart}, seen from {@code at}, stays in its current whole
+     * hour; null once the show has started, as the lead time stays 0.
+     */
+    public static LocalDateTime validUntil(LocalDateTime showStart, LocalDateTime at) {
+        long leadHours = ChronoUnit.HOURS.between(at, showStart);
+        return leadHours <= 0 ? null : showStart.minusHours(leadHours);
+    }
+
+    /**
+     * Identifies the compiled rules in use; changes on every rule edit, so
+     * callers caching prices can compare it to spot one.
+     */
+    public long rulesVersion() {
+        if (!enabled) {
+            return 0L;
+        }
+        RuleSet current = rules();
+        return current == null ? 0L : current.version();
+    }
+
+    /**
+     * Recompiles the active rules and swaps them in. On failure the previous
+     * rules stay in use.
+     */
+    public void reloadRules() {
+        reloadLock.lock();
+        try {
+            load();
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    // ─── Compiled rules ───────────────────────────────────────────────────────────
+
+    /**
+     * Current rules, reloaded once stale; null only if they have never loaded.
+     * Only one caller reloads a stale snapshot; the rest use it meanwhile.
+     * Before the first load there is nothing to fall back on, so callers wait.
+     */
+    private RuleSet rules() {
+        RuleSet current = ruleSet;
+        if (current != null && !isStale(current)) {
+            return current;
+        }
+        if (current == null) {
+            reloadLock.lock();
+        } else if (!reloadLock.tryLock()) {
+            return current;
+        }
+        try {
+            current = ruleSet;
+            if (current == null || isStale(current)) {
+                load();
+                current = ruleSet;
+            }
+        } finally {
+            reloadLock.unlock();
+        }
+        if (current == null) {
+            logger.warn("pricing rules unavailable; falling back to base price");
+        }
+        return current;
+    }
+
+    private static boolean isStale(RuleSet current) {
+        return System.currentTimeMillis() - current.loadedAtMillis() > RULES_TTL_MILLIS;
+    }
+
+    /** Called with {@link #reloadLock} held. */
+    private void load() {
+        RuleSet previous = ruleSet;
         try {
-            rules = pricingRuleRepository.findByActiveTrueOrderByPriorityAsc();
+            CompiledRule[] compiled = compile(pricingRuleRepository.findByActiveTrueOrderByPriorityAsc());
+            if (previous != null && Arrays.equals(previous.rules(), compiled)) {
+                // Unchanged: keep the version and the memoised multipliers
+                ruleSet = new RuleSet(previous.rules(), previous.version(), previous.usesOccupancy(),
+                        previous.multipliers(), System.currentTimeMillis());
+            } else {
+                boolean usesOccupancy = Arrays.stream(compiled).anyMatch(CompiledRule::occupancyFilter);
+                ruleSet = new RuleSet(compiled, ruleVersions.incrementAndGet(), usesOccupancy,
+                        new ConcurrentHashMap<>(), System.currentTimeMillis());
+            }
         } catch (Exception e) {
-            logger.warn("pricing-rule lookup failed; falling back to base price: {}", e.getMessage());
-            return PriceBreakdown.passthrough(base);
+            logger.warn("pricing-rule reload failed; keeping previous rules: {}", e.getMessage());
+            if (previous != null) {
+                // Retry after another TTL rather than on every call
+                ruleSet = new RuleSet(previous.rules(), previous.version(), previous.usesOccupancy(),
+                        previous.multipliers(), System.currentTimeMillis());
+            }
         }
-        if (rules == null || rules.isEmpty()) {
-            return PriceBreakdown.passthrough(base);
+    }
+
+    private static Multiplier multiplierFor(RuleSet current, LocalDateTime showStart, LocalDateTime at,
+                                            int occupancyPercent) {
+        if (showStart == null || at == null) {
+            return IDENTITY;
         }
+        int day = showStart.getDayOfWeek().getValue() - 1;
+        int hour = showStart.getHour();
+        long leadHours = Math.max(0L, ChronoUnit.HOURS.between(at, showStart));
+        // Occupancy only splits the memo when some rule looks at it
+        int occupancy = current.usesOccupancy() ? Math.max(UNKNOWN_OCCUPANCY, Math.min(100, occupancyPercent))
+                : UNKNOWN_OCCUPANCY;
+        long key = (leadHours * 168 + day * 24L + hour) * 102 + (occupancy + 1);
+        Map<Long, Multiplier> memo = current.multipliers();
+        Multiplier m = memo.get(key);
+        if (m == null) {
+            m = evaluate(current.rules(), 1 << day, hour, leadHours, occupancy);
+            if (memo.size() >= MAX_MEMOISED_MULTIPLIERS) {
+                memo.clear();
+            }
+            memo.put(key, m);
+        }
+        return m;
+    }
 
-        BigDecimal multiplier = BigDecimal.ONE;
+    private static Multiplier evaluate(CompiledRule[] rules, int dayBit, int hour, long leadHours,
+                                       int occupancyPercent) {
+        BigDecimal factor = BigDecimal.ONE;
         List<String> applied = new ArrayList<>();
+        for (CompiledRule r : rules) {
+            if (r.matches(dayBit, hour, leadHours, occupancyPercent)) {
+                factor = factor.multiply(r.multiplier());
+                applied.add(r.name());
+            }
+        }
+        return new Multiplier(factor, List.copyOf(applied));
+    }
+
+    /**
+     * Compiles {@code rules} in list order; rules without a multiplier or that
+     * fail to compile are left out. Also used by {@link PricingBacktestService}.
+     */
+    static CompiledRule[] compile(List<PricingRule> rules) {
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
         for (PricingRule r : rules) {
             try {
-                if (matches(r, showStart, at)) {
-                    BigDecimal m = r.getMultiplier();
-                    if (m == null) {
-                        continue;
-                    }
-                    multiplier = multiplier.multiply(m);
-                    applied.add(r.getName());
+                if (r.getMultiplier() == null) {
+                    continue;
                 }
+                compiled.add(compile(r));
             } catch (Exception e) {
-                logger.warn("rule {} evaluation failed, skipping: {}", r.getId(), e.getMessage());
+                logger.warn("rule {} could not be compiled, skipping: {}", r.getId(), e.getMessage());
             }
         }
+        return compiled.toArray(CompiledRule[]::new);
+    }
 
-        BigDecimal effective = base.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
-        return new PriceBreakdown(base, effective, applied);
+    private static CompiledRule compile(PricingRule r) {
+        int dayMask = r.getDaysOfWeek() == null ? 0 : parseDays(r.getDaysOfWeek());
+        boolean hourFilter = r.getStartHour() != null || r.getEndHour() != null;
+        int lo = r.getStartHour() == null ? 0 : r.getStartHour();
+        int hi = r.getEndHour() == null ? 23 : r.getEndHour();
+        long minLead = r.getMinLeadTimeHours() == null ? Long.MIN_VALUE : r.getMinLeadTimeHours();
+        long maxLead = r.getMaxLeadTimeHours() == null ? Long.MAX_VALUE : r.getMaxLeadTimeHours();
+        boolean occupancyFilter = r.getMinOccupancyPercent() != null || r.getMaxOccupancyPercent() != null;
+        int minOccupancy = r.getMinOccupancyPercent() == null ? 0 : r.getMinOccupancyPercent();
+        int maxOccupancy = r.getMaxOccupancyPercent() == null ? 100 : r.getMaxOccupancyPercent();
+        return new CompiledRule(r.getName(), r.getMultiplier(), dayMask, hourFilter, lo, hi, minLead, maxLead,
+                occupancyFilter, minOccupancy, maxOccupancy);
     }
 
-    private boolean matches(PricingRule r, LocalDateTime showStart, LocalDateTime at) {
-        if (showStart == null || at == null) {
-            return false;
+    /** Bitmask of the days in {@code csv}; 0 (any day) if none are recognised. */
+    private static int parseDays(String csv) {
+        int mask = 0;
+        for (String tok : csv.split(",")) {
+            switch (tok.trim().toUpperCase()) {
+                case "MON" -> mask |= dayBit(DayOfWeek.MONDAY);
+                case "TUE" -> mask |= dayBit(DayOfWeek.TUESDAY);
+                case "WED" -> mask |= dayBit(DayOfWeek.WEDNESDAY);
+                case "THU" -> mask |= dayBit(DayOfWeek.THURSDAY);
+                case "FRI" -> mask |= dayBit(DayOfWeek.FRIDAY);
+                case "SAT" -> mask |= dayBit(DayOfWeek.SATURDAY);
+                case "SUN" -> mask |= dayBit(DayOfWeek.SUNDAY);
+                default -> { /* ignore unknown tokens */ }
+            }
         }
-        // Day-of-week filter (on show's local day)
-        if (r.getDaysOfWeek() != null && !r.getDaysOfWeek().isBlank()) {
-            Set<DayOfWeek> allowed = parseDays(r.getDaysOfWeek());
-            if (!allowed.isEmpty() && !allowed.contains(showStart.getDayOfWeek())) {
+        return mask;
+    }
+
+    private static int dayBit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+
+    /**
+     * Combined rule multiplier and the names of the rules behind it, in
+     * priority order. Shared between callers; the list is immutable.
+     */
+    public record Multiplier(BigDecimal factor, List<String> appliedRules) {
+    }
+
+    private record RuleSet(CompiledRule[] rules, long version, boolean usesOccupancy,
+                           Map<Long, Multiplier> multipliers, long loadedAtMillis) {
+    }
+
+    /**
+     * One active rule with its filters pre-parsed. {@code dayMask} 0 means any
+     * day; unset lead-time bounds are {@code Long.MIN_VALUE}/{@code MAX_VALUE}.
+     */
+    record CompiledRule(String name, BigDecimal multiplier, int dayMask,
+                                boolean hourFilter, int startHour, int endHour,
+                                long minLeadHours, long maxLeadHours,
+                                boolean occupancyFilter, int minOccupancyPercent, int maxOccupancyPercent) {
+
+        boolean matches(int dayBit, int hour, long leadHours, int occupancyPercent) {
+            // Day-of-week filter (on show's local day)
+            if (dayMask != 0 && (dayMask & dayBit) == 0) {
                 return false;
             }
-        }
-        // Hour-of-show filter (inclusive bounds)
-        if (r.getStartHour() != null || r.getEndHour() != null) {
-            int hour = showStart.getHour();
-            int lo = r.getStartHour() == null ? 0 : r.getStartHour();
-            int hi = r.getEndHour() == null ? 23 : r.getEndHour();
-            if (lo <= hi) {
-                if (hour < lo || hour > hi) {
-                    return false;
-                }
-            } else {
-                // wrap-around (e.g. 22→2) — accept hour ≥ lo OR hour ≤ hi
-                if (!(hour >= lo || hour <= hi)) {
+            // Hour-of-show filter (inclusive bounds)
+            if (hourFilter) {
+                if (startHour <= endHour) {
+                    if (hour < startHour || hour > endHour) {
+                        return false;
+                    }
+                } else if (hour < startHour && hour > endHour) {
+                    // wrap-around (e.g. 22→2) — accept hour ≥ lo OR hour ≤ hi
                     return false;
                 }
             }
-        }
-        // Lead-time filter
-        if (r.getMinLeadTimeHours() != null || r.getMaxLeadTimeHours() != null) {
-            long leadHours = Math.max(0L, Duration.between(at, showStart).toHours());
-            if (r.getMinLeadTimeHours() != null && leadHours < r.getMinLeadTimeHours()) {
-                return false;
-            }
-            if (r.getMaxLeadTimeHours() != null && leadHours > r.getMaxLeadTimeHours()) {
+            // Lead-time filter
+            if (leadHours < minLeadHours || leadHours > maxLeadHours) {
                 return false;
             }
+            // Occupancy filter (inclusive bounds); unknown occupancy never matches
+            return !occupancyFilter
+                    || (occupancyPercent >= minOccupancyPercent && occupancyPercent <= maxOccupancyPercent);
         }
-        return true;
-    }
-
-    private static Set<DayOfWeek> parseDays(String csv) {
-        Set<DayOfWeek> out = new HashSet<>();
-        for (String tok : Arrays.asList(csv.split(","))) {
-            switch (tok.trim().toUpperCase()) {
-                case "MON" -> out.add(DayOfWeek.MONDAY);
-                case "TUE" -> out.add(DayOfWeek.TUESDAY);
-                case "WED" -> out.add(DayOfWeek.WEDNESDAY);
-                case "THU" -> out.add(DayOfWeek.THURSDAY);
-                case "FRI" -> out.add(DayOfWeek.FRIDAY);
-                case "SAT" -> out.add(DayOfWeek.SATURDAY);
-                case "SUN" -> out.add(DayOfWeek.SUNDAY);
-                default -> { /* ignore unknown tokens */ }
-            }
-        }
-        return out;
     }
 }
@@ -0,0 +1,123 @@
+package com.mishraachandan.booking_system.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Signs and checks price-quote tokens: the effective price of each seat of
+ * one lock, bound to the user and show, with an expiry.
+ *
+ * Token format: {@code base64url(payload) "." base64url(HMAC-SHA256(payload))}
+ * with payload {@code showId|userId|expiresAtMillis|seatId:price,...}. The MAC
+ * is keyed with {@code pricing.quote-token.secret} and covers a fixed
+ * "price-quote|" prefix, so a token can never pass for another signed value
+ * even if that secret is shared with another use.
+ */
+@Service
+public class QuoteTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteTokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String PURPOSE = "price-quote|";
+
+    private final SecretKeySpec key;
+
+    public QuoteTokenService(@Value("${pricing.quote-token.secret:}") String secret) {
+        this.key = secret == null || secret.isBlank()
+                ? null
+                : new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+    }
+
+    /** Signs {@code prices}; null when no secret is configured. */
+    public String issue(Long userId, Long showId, Map<Long, BigDecimal> prices, long expiresAtMillis) {
+        if (key == null) {
+            return null;
+        }
+        StringBuilder payload = new StringBuilder()
+                .append(showId).append('|').append(userId).append('|').append(expiresAtMillis).append('|');
+        boolean first = true;
+        for (Map.Entry<Long, BigDecimal> e : prices.entrySet()) {
+            if (!first) {
+                payload.append(',');
+            }
+            payload.append(e.getKey()).append(':').append(e.getValue().toPlainString());
+            first = false;
+        }
+        byte[] bytes = payload.toString().getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder b64 = Base64.getUrlEncoder().withoutPadding();
+        return b64.encodeToString(bytes) + "." + b64.encodeToString(sign(bytes));
+    }
+
+    /**
+     * Prices signed in {@code token} for {@code showSeatIds}, or null if the
+     * token is malformed, forged, expired, issued to another user or show, or
+     * doesn't cover every seat.
+     */
+    public Map<Long, BigDecimal> verify(String token, Long userId, Long showId, Collection<Long> showSeatIds) {
+        if (key == null || token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            int dot = token.indexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            Base64.Decoder b64 = Base64.getUrlDecoder();
+            byte[] payload = b64.decode(token.substring(0, dot));
+            if (!MessageDigest.isEqual(sign(payload), b64.decode(token.substring(dot + 1)))) {
+                return null;
+            }
+
+            String[] parts = new String(payload, StandardCharsets.UTF_8).split("\\|", 4);
+            if (parts.length != 4
+                    || !Long.toString(showId).equals(parts[0])
+                    || !Long.toString(userId).equals(parts[1])
+                    || Long.parseLong(parts[2]) < System.currentTimeMillis()) {
+                return null;
+            }
+            Map<Long, BigDecimal> signed = new HashMap<>();
+            for (String entry : parts[3].split(",")) {
+                int colon = entry.indexOf(':');
+                signed.put(Long.parseLong(entry.substring(0, colon)), new BigDecimal(entry.substring(colon + 1)));
+            }
+            Map<Long, BigDecimal> prices = new HashMap<>(showSeatIds.size() * 2);
+            for (Long id : showSeatIds) {
+                BigDecimal price = signed.get(id);
+                if (price == null) {
+                    return null;
+                }
+                prices.put(id, price);
+            }
+            return prices;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            // Bad base64 or numbers; NumberFormatException is an IllegalArgumentException
+            logger.debug("Rejected malformed quote token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(PURPOSE.getBytes(StandardCharsets.UTF_8));
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.Seat;
+import com.mishraachandan.booking_system.dto.status.SeatType;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable physical seat layout of a screen: seat ids, seat numbers and
+ * seat types, ordered by seat number.
+ *
+ * Seats belong to the screen, not to a show, so one layout is shared by
+ * every show on that screen and is read from the {@code seats} table once.
+ *
+ * Seat numbers of the form {@code <row letters><column number>} ("A1",
+ * "K12", "AA3") are also parsed into a row rank (front row = 0, rows ordered
+ * by label length then alphabetically) and a column, which the best-available
+ * allocator uses to find contiguous blocks. Seats that do not follow the
+ * pattern get row -1 and are never auto-allocated.
+ */
+public final class ScreenSeatLayout {
+
+    private static final Pattern SEAT_NUMBER = Pattern.compile("^([A-Za-z]+)\\s*-?\\s*(\\d{1,6})$");
+    // "B" before "AA": shorter labels first, then alphabetical
+    private static final Comparator<String> ROW_ORDER =
+            Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder());
+
+    private final Long screenId;
+    private final long[] seatIds;
+    private final String[] seatNumbers;
+    private final SeatType[] seatTypes;
+    private final int[] rows;
+    private final int[] columns;
+    private final int rowCount;
+    private final Map<Long, Integer> positions;
+
+    ScreenSeatLayout(Long screenId, List<Seat> seats) {
+        List<Seat> ordered = seats.stream()
+                .sorted(Comparator.comparing(Seat::getSeatNumber))
+                .toList();
+        int n = ordered.size();
+        this.screenId = screenId;
+        this.seatIds = new long[n];
+        this.seatNumbers = new String[n];
+        this.seatTypes = new SeatType[n];
+        this.rows = new int[n];
+        this.columns = new int[n];
+        this.positions = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            Seat seat = ordered.get(i);
+            seatIds[i] = seat.getId();
+            seatNumbers[i] = seat.getSeatNumber();
+            seatTypes[i] = seat.getSeatType() == null ? SeatType.REGULAR : seat.getSeatType();
+            positions.put(seat.getId(), i);
+        }
+
+        // Row labels -> dense row ranks, front to back
+        String[] labels = new String[n];
+        TreeSet<String> distinct = new TreeSet<>(ROW_ORDER);
+        for (int i = 0; i < n; i++) {
+            Matcher m = SEAT_NUMBER.matcher(seatNumbers[i]);
+            if (m.matches()) {
+                labels[i] = m.group(1).toUpperCase();
+                columns[i] = Integer.parseInt(m.group(2));
+                distinct.add(labels[i]);
+            }
+        }
+        Map<String, Integer> rank = new HashMap<>();
+        for (String label : distinct) {
+            rank.put(label, rank.size());
+        }
+        for (int i = 0; i < n; i++) {
+            rows[i] = labels[i] == null ? -1 : rank.get(labels[i]);
+        }
+        this.rowCount = rank.size();
+    }
+
+    public Long getScreenId() {
+        return screenId;
+    }
+
+    public int size() {
+        return seatIds.length;
+    }
+
+    /** Position of a seat in the layout, or -1 if it is not on this screen. */
+    public int indexOf(Long seatId) {
+        Integer p = positions.get(seatId);
+        return p == null ? -1 : p;
+    }
+
+    public long seatIdAt(int index) {
+        return seatIds[index];
+    }
+
+    public String seatNumberAt(int index) {
+        return seatNumbers[index];
+    }
+
+    public SeatType seatTypeAt(int index) {
+        return seatTypes[index];
+    }
+
+    /** Row rank of a seat (0 = front row), or -1 if its number has no row/column form. */
+    public int rowAt(int index) {
+        return rows[index];
+    }
+
+    public int columnAt(int index) {
+        return columns[index];
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+}
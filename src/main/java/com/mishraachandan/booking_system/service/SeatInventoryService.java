@@ -0,0 +1,420 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.pojo.ShowAvailability;
+import com.mishraachandan.booking_system.dto.pojo.ShowHeader;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatState;
+import com.mishraachandan.booking_system.repository.SeatRepository;
+import com.mishraachandan.booking_system.repository.ShowRepository;
+import com.mishraachandan.booking_system.repository.ShowSeatRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of per-show {@link ShowSeatInventory} instances.
+ *
+ * The inventory is the read model for seat maps and a cheap pre-check for
+ * seat transitions. The database stays the arbiter: every transition is a
+ * conditional, set-based UPDATE on {@code show_seats}, and the inventory is
+ * updated ahead of it (reverted on rollback) or mirrored after commit.
+ *
+ * An inventory is assembled from two caches and one overlay read: the
+ * screen's physical seat layout (shared by every show on the screen), the
+ * show's header (movie / cinema / city), and the show's show_seats rows
+ * (status, price, lock) read from that single table.
+ *
+ * Inventories for every show that has not ended are built on startup, and
+ * shows created later are loaded lazily on first access. Shows that have
+ * ended are never cached: they are built from the database per request, and
+ * cached ones are evicted once they end. With several app nodes each
+ * holds its own copy. Seat locks and bookings always go to the database,
+ * and when its answer differs from the in-memory one (or memory refuses) the
+ * seats involved are re-read with {@link #resync(Long, Collection)}; anything
+ * else that drifts is corrected by {@link #reconcileCounters()}.
+ */
+@Service
+public class SeatInventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatInventoryService.class);
+
+    private static final ScreenSeatLayout EMPTY_LAYOUT = new ScreenSeatLayout(null, List.of());
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final ShowSeatRepository showSeatRepository;
+    private final ShowRepository showRepository;
+    private final SeatRepository seatRepository;
+
+    private final Map<Long, ShowSeatInventory> inventories = new ConcurrentHashMap<>();
+    private final Map<Long, ScreenSeatLayout> screenLayouts = new ConcurrentHashMap<>();
+    private final Map<Long, ShowHeader> showHeaders = new ConcurrentHashMap<>();
+    // Consecutive reconcile runs on which a show's counters disagreed with show_seats
+    private final Map<Long, Integer> counterMismatches = new ConcurrentHashMap<>();
+    private final Map<Long, Long> showIdBySeatId = new ConcurrentHashMap<>();
+
+    public SeatInventoryService(ShowSeatRepository showSeatRepository,
+                                ShowRepository showRepository,
+                                SeatRepository seatRepository) {
+        this.showSeatRepository = showSeatRepository;
+        this.showRepository = showRepository;
+        this.seatRepository = seatRepository;
+    }
+
+    // ─── Lookup / build ──────────────────────────────────────────────────────────
+
+    /**
+     * Returns the inventory for a show, building it from the database on
+     * first access. A show with no ShowSeat rows yields an empty inventory
+     * that is not cached, so seats materialised later are picked up. Unknown
+     * or ended shows are built per call and not cached, so walking show ids
+     * cannot grow the registry.
+     */
+    public ShowSeatInventory get(Long showId) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory != null) {
+            return inventory;
+        }
+        LocalDateTime endTime = showRepository.findEndTimeById(showId).orElse(null);
+        if (endTime == null || !endTime.isAfter(LocalDateTime.now())) {
+            return load(showId, false);
+        }
+        ShowSeatInventory built = load(showId, true);
+        if (built.size() == 0) {
+            return built;
+        }
+        ShowSeatInventory existing = inventories.putIfAbsent(showId, built);
+        if (existing != null) {
+            return existing;
+        }
+        for (Long showSeatId : built.showSeatIds()) {
+            showIdBySeatId.put(showSeatId, showId);
+        }
+        return built;
+    }
+
+    /**
+     * Resolves the inventory that owns a ShowSeat, or null if the seat does not exist.
+     */
+    public ShowSeatInventory getBySeatId(Long showSeatId) {
+        Long showId = showIdBySeatId.get(showSeatId);
+        if (showId == null) {
+            showId = showSeatRepository.findShowIdById(showSeatId).orElse(null);
+        }
+        return showId == null ? null : get(showId);
+    }
+
+    /** Drops a show's inventory; the next access rebuilds it from the database. */
+    public void evict(Long showId) {
+        showHeaders.remove(showId);
+        counterMismatches.remove(showId);
+        ShowSeatInventory removed = inventories.remove(showId);
+        if (removed != null) {
+            removed.showSeatIds().forEach(showIdBySeatId::remove);
+        }
+    }
+
+    /**
+     * Builds a show's inventory from the cached screen layout and show header
+     * plus a single-table read of its show_seats overlay.
+     *
+     * @param cacheHeader whether to keep the show header for later rebuilds
+     */
+    private ShowSeatInventory load(Long showId, boolean cacheHeader) {
+        ShowHeader header = showHeaders.get(showId);
+        if (header == null) {
+            header = showRepository.findHeaderById(showId).orElse(null);
+            if (header == null) {
+                return new ShowSeatInventory(emptyHeader(showId), EMPTY_LAYOUT, List.of());
+            }
+            if (cacheHeader) {
+                showHeaders.put(showId, header);
+            }
+        }
+        ScreenSeatLayout layout = getScreenLayout(header.getScreenId());
+        return new ShowSeatInventory(header, layout, showSeatRepository.findStatesByShowId(showId));
+    }
+
+    /**
+     * Physical seat layout of a screen, read from {@code seats} once and then
+     * shared by every show on the screen. Seats are only created by seeding,
+     * so an empty layout is not cached in case seeding has not run yet.
+     */
+    ScreenSeatLayout getScreenLayout(Long screenId) {
+        ScreenSeatLayout layout = screenLayouts.get(screenId);
+        if (layout != null) {
+            return layout;
+        }
+        ScreenSeatLayout built = new ScreenSeatLayout(screenId, seatRepository.findByScreenId(screenId));
+        if (built.size() == 0) {
+            return built;
+        }
+        ScreenSeatLayout existing = screenLayouts.putIfAbsent(screenId, built);
+        return existing != null ? existing : built;
+    }
+
+    private static ShowHeader emptyHeader(Long showId) {
+        ShowHeader header = new ShowHeader();
+        header.setShowId(showId);
+        return header;
+    }
+
+    /**
+     * Rebuilds the inventory of every show that has not ended yet, so the
+     * first seat-map request after a restart is served from memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildFromDatabase() {
+        List<Long> showIds;
+        try {
+            showIds = showRepository.findIdsEndingAfter(LocalDateTime.now());
+        } catch (Exception e) {
+            logger.warn("Seat inventory rebuild skipped: {}", e.getMessage());
+            return;
+        }
+        inventories.clear();
+        showIdBySeatId.clear();
+        int seats = 0;
+        for (Long showId : showIds) {
+            seats += get(showId).size();
+        }
+        logger.info("Seat inventory rebuilt for {} shows ({} seats)", showIds.size(), seats);
+    }
+
+    /**
+     * Runs every 10 minutes: drops the inventories (and headers) of shows that
+     * have ended since they were loaded.
+     */
+    @Scheduled(fixedRate = 600000)
+    public void evictEndedShows() {
+        if (inventories.isEmpty() && showHeaders.isEmpty()) {
+            return;
+        }
+        Set<Long> live = new HashSet<>(showRepository.findIdsEndingAfter(LocalDateTime.now()));
+        List<Long> ended = new ArrayList<>();
+        for (Long showId : inventories.keySet()) {
+            if (!live.contains(showId)) {
+                ended.add(showId);
+            }
+        }
+        ended.forEach(this::evict);
+        showHeaders.keySet().removeIf(showId -> !live.contains(showId));
+        if (!ended.isEmpty()) {
+            logger.info("Evicted seat inventories of {} ended shows", ended.size());
+        }
+    }
+
+    /**
+     * Re-reads the given seats from show_seats and overwrites their in-memory
+     * state. Used when the database rejects a transition the inventory
+     * allowed, i.e. the in-memory copy was stale for those seats.
+     */
+    void resync(Long showId, Collection<Long> showSeatIds) {
+        ShowSeatInventory inventory = inventories.get(showId);
+        if (inventory == null || showSeatIds.isEmpty()) {
+            return;
+        }
+        for (ShowSeatState state : showSeatRepository.findStatesByIds(showSeatIds)) {
+            inventory.applyState(state);
+        }
+    }
+
+    // ─── Availability counters ───────────────────────────────────────────────────
+
+    /**
+     * Seat counts for many shows at once, in request order. Loaded shows are
+     * answered from their in-memory counters; the rest share one grouped
+     * count over show_seats (they are not loaded just for this).
+     */
+    public List<ShowAvailability> availability(List<Long> showIds) {
+        Map<Long, ShowAvailability> result = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long showId : showIds) {
+            ShowSeatInventory inventory = inventories.get(showId);
+            if (inventory != null) {
+                result.put(showId, inventory.availability());
+            } else {
+                misses.add(showId);
+            }
+        }
+        if (!misses.isEmpty()) {
+            result.putAll(countFromDatabase(misses));
+        }
+        List<ShowAvailability> ordered = new ArrayList<>(showIds.size());
+        for (Long showId : showIds) {
+            ordered.add(result.getOrDefault(showId, new ShowAvailability(showId, 0, 0, 0, 0)));
+        }
+        return ordered;
+    }
+
+    /**
+     * Runs every 5 minutes. Compares the counters of every loaded show with
+     * show_seats and re-applies the show's rows when they disagree on two
+     * runs in a row (a single mismatch is usually a transition in flight).
+     */
+    @Scheduled(fixedRate = 300000)
+    public void reconcileCounters() {
+        List<Long> loaded = new ArrayList<>(inventories.keySet());
+        int resynced = 0;
+        for (int from = 0; from < loaded.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Long> batch = loaded.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, loaded.size()));
+            Map<Long, ShowAvailability> actual = countFromDatabase(batch);
+            for (Long showId : batch) {
+                ShowSeatInventory inventory = inventories.get(showId);
+                if (inventory == null) {
+                    continue;
+                }
+                ShowAvailability expected = actual.getOrDefault(showId, new ShowAvailability(showId, 0, 0, 0, 0));
+                if (sameCounts(inventory.availability(), expected)) {
+                    counterMismatches.remove(showId);
+                } else if (counterMismatches.merge(showId, 1, Integer::sum) >= 2) {
+                    counterMismatches.remove(showId);
+                    showSeatRepository.findStatesByShowId(showId).forEach(inventory::applyState);
+                    resynced++;
+                }
+            }
+        }
+        if (resynced > 0) {
+            logger.warn("Seat counters drifted for {} shows; re-applied show_seats", resynced);
+        }
+    }
+
+    private Map<Long, ShowAvailability> countFromDatabase(Collection<Long> showIds) {
+        Map<Long, ShowAvailability> counts = new HashMap<>();
+        for (Object[] row : showSeatRepository.countByShowIdsAndStatus(showIds)) {
+            Long showId = (Long) row[0];
+            int count = ((Number) row[2]).intValue();
+            ShowAvailability a = counts.computeIfAbsent(showId, id -> new ShowAvailability(id, 0, 0, 0, 0));
+            a.setTotalSeats(a.getTotalSeats() + count);
+            switch ((SeatStatus) row[1]) {
+                case AVAILABLE -> a.setAvailable(count);
+                case LOCKED -> a.setLocked(count);
+                case BOOKED -> a.setBooked(count);
+            }
+        }
+        return counts;
+    }
+
+    private static boolean sameCounts(ShowAvailability a, ShowAvailability b) {
+        return a.getTotalSeats() == b.getTotalSeats() && a.getAvailable() == b.getAvailable()
+                && a.getLocked() == b.getLocked() && a.getBooked() == b.getBooked();
+    }
+
+    // ─── Helpers ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Expires in-memory locks older than the cutoff across every loaded show.
+     *
+     * @return released showSeatIds keyed by showId
+     */
+    Map<Long, List<Long>> expireLocks(LocalDateTime cutoff) {
+        long cutoffMillis = cutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        Map<Long, List<Long>> expired = new HashMap<>();
+        inventories.forEach((showId, inventory) -> {
+            List<Long> ids = inventory.expireLocks(cutoffMillis);
+            if (!ids.isEmpty()) {
+                expired.put(showId, ids);
+            }
+        });
+        return expired;
+    }
+
+    /**
+     * Applies a targeted lock expiry to whichever loaded inventories own the given seats.
+     *
+     * @return the seats actually released, keyed by showId
+     */
+    Map<Long, List<Long>> expireLocks(Collection<Long> showSeatIds, long cutoffMillis) {
+        Map<Long, List<Long>> expired = new HashMap<>();
+        groupByLoadedShow(showSeatIds).forEach((showId, ids) -> {
+            ShowSeatInventory inventory = inventories.get(showId);
+            List<Long> released = inventory == null ? List.of() : inventory.expireLocks(ids, cutoffMillis);
+            if (!released.isEmpty()) {
+                expired.put(showId, released);
+            }
+        });
+        return expired;
+    }
+
+    /**
+     * Applies a release to whichever loaded inventories own the given seats.
+     *
+     * @return the seats released, keyed by showId
+     */
+    Map<Long, List<Long>> release(Collection<Long> showSeatIds) {
+        Map<Long, List<Long>> byShow = groupByLoadedShow(showSeatIds);
+        byShow.forEach((showId, ids) -> {
+            ShowSeatInventory inventory = inventories.get(showId);
+            if (inventory != null) {
+                inventory.release(ids);
+            }
+        });
+        return byShow;
+    }
+
+    private Map<Long, List<Long>> groupByLoadedShow(Collection<Long> showSeatIds) {
+        Map<Long, List<Long>> byShow = new HashMap<>();
+        for (Long id : showSeatIds) {
+            Long showId = showIdBySeatId.get(id);
+            if (showId != null && inventories.containsKey(showId)) {
+                byShow.computeIfAbsent(showId, k -> new ArrayList<>()).add(id);
+            }
+        }
+        return byShow;
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or
+     * immediately when there is no transaction. Keeps the inventory from
+     * showing state that was rolled back in the database.
+     */
+    void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Runs {@code action} if the current transaction rolls back. Used to undo
+     * an in-memory transition applied ahead of its database write.
+     */
+    void afterRollback(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        action.run();
+                    }
+                }
+            });
+        }
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
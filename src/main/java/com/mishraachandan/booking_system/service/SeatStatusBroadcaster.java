@@ -0,0 +1,332 @@
+package com.mishraachandan.booking_system.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.pojo.SeatStatusEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans seat-status deltas out to Server-Sent Events subscribers, one shared
+ * subscriber list per show.
+ *
+ * Each delta is serialised to JSON once on a dispatch thread and handed to
+ * every viewer of the show, so a slow client never holds up the transaction
+ * that produced the change. Shows are routed to one of
+ * {@code show-seats.stream.dispatch-threads} threads by id, so deltas for a
+ * show reach its viewers in the order they were published. Publishers call
+ * {@link #publish} after commit.
+ *
+ * Dispatch threads never write to a socket: each viewer has its own queue
+ * of {@link #VIEWER_QUEUE_FRAMES} frames, drained by a pool of
+ * {@code show-seats.stream.writer-threads} writers, one viewer at a time.
+ * A viewer whose queue fills up is dropped (completed once any write in
+ * progress ends), so it reconnects and reloads the seat map. A client whose
+ * socket has stopped accepting data still ties up one writer until the
+ * container's write timeout; only if every writer is stuck that way does
+ * delivery to the others wait.
+ *
+ * Nothing here blocks a publisher or grows without bound. Each dispatch
+ * thread queues at most {@code show-seats.stream.queue-capacity} deltas;
+ * when it is full the delta is dropped and the show's viewers are dropped
+ * too. The stream is open to anonymous clients, so viewers are capped at
+ * {@code max-viewers-per-show} per show and {@code max-streams-per-client}
+ * per client IP; {@link #subscribe} returns null beyond that.
+ *
+ * Single-instance only, like {@code InMemoryRateLimiter}: viewers connected
+ * to another node do not see this node's changes.
+ */
+@Service
+public class SeatStatusBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(SeatStatusBroadcaster.class);
+
+    // Viewers reconnect (EventSource does so automatically) after this long
+    private static final long EMITTER_TIMEOUT_MILLIS = 30 * 60_000L;
+    // Frames a viewer may fall behind by before it is dropped
+    private static final int VIEWER_QUEUE_FRAMES = 64;
+
+    @Value("${show-seats.stream.dispatch-threads:4}")
+    private int dispatchThreads;
+
+    @Value("${show-seats.stream.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${show-seats.stream.writer-threads:8}")
+    private int writerThreads;
+
+    @Value("${show-seats.stream.max-viewers-per-show:5000}")
+    private int maxViewersPerShow;
+
+    @Value("${show-seats.stream.max-streams-per-client:10}")
+    private int maxStreamsPerClient;
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, List<Viewer>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> streamsPerClient = new ConcurrentHashMap<>();
+    private final List<ThreadPoolExecutor> dispatchers = new ArrayList<>();
+    private ThreadPoolExecutor writers;
+
+    public SeatStatusBroadcaster(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threads = Math.max(1, dispatchThreads);
+        int capacity = Math.max(1, queueCapacity);
+        for (int i = 0; i < threads; i++) {
+            String name = "seat-status-sse-" + i;
+            dispatchers.add(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(capacity), r -> {
+                        Thread t = new Thread(r, name);
+                        t.setDaemon(true);
+                        return t;
+                    }, new ThreadPoolExecutor.AbortPolicy()));
+        }
+        // At most one drain task per viewer, and viewers are capped
+        AtomicInteger writerIds = new AtomicInteger();
+        int writerCount = Math.max(1, writerThreads);
+        writers = new ThreadPoolExecutor(writerCount, writerCount, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "seat-status-writer-" + writerIds.getAndIncrement());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Registers a viewer of a show's seat map. The emitter removes itself on
+     * completion, timeout or a failed write.
+     *
+     * @return the stream, or null when the show or the client already has
+     *         as many streams as allowed
+     */
+    public SseEmitter subscribe(Long showId, String clientIp) {
+        String client = clientIp == null ? "unknown" : clientIp;
+        if (!reserveClientStream(client)) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MILLIS);
+        Viewer viewer = new Viewer(showId, client, emitter);
+        int perShow = Math.max(1, maxViewersPerShow);
+        boolean[] added = {false};
+        subscribers.compute(showId, (k, viewers) -> {
+            List<Viewer> list = viewers != null ? viewers : new CopyOnWriteArrayList<>();
+            if (list.size() < perShow) {
+                list.add(viewer);
+                added[0] = true;
+            }
+            return list.isEmpty() ? null : list;
+        });
+        if (!added[0]) {
+            releaseClientStream(client);
+            return null;
+        }
+        emitter.onCompletion(viewer::close);
+        emitter.onTimeout(viewer::close);
+        emitter.onError(e -> viewer.close());
+        return emitter;
+    }
+
+    /**
+     * Pushes a delta to every viewer of the show. No-op when nobody is watching.
+     */
+    public void publish(Long showId, SeatStatus status, Collection<Long> showSeatIds, Long lockedByUserId) {
+        if (showSeatIds.isEmpty() || !subscribers.containsKey(showId)) {
+            return;
+        }
+        SeatStatusEvent event = new SeatStatusEvent(showId, status, List.copyOf(showSeatIds), lockedByUserId);
+        try {
+            dispatcherFor(showId).execute(() -> dispatch(showId, event));
+        } catch (RejectedExecutionException e) {
+            // Viewers would miss this delta: make them reconnect and reload instead
+            logger.warn("Seat status dispatch queue full; resetting viewers of show {}", showId);
+            List<Viewer> viewers = subscribers.get(showId);
+            if (viewers != null) {
+                viewers.forEach(Viewer::drop);
+            }
+        }
+    }
+
+    /** Publishes each show's share of a multi-show transition (e.g. an expiry batch). */
+    public void publish(Map<Long, List<Long>> showSeatIdsByShow, SeatStatus status) {
+        showSeatIdsByShow.forEach((showId, ids) -> publish(showId, status, ids, null));
+    }
+
+    /**
+     * Comment-only heartbeat so proxies keep idle streams open and dead
+     * connections are detected and dropped.
+     */
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> frame = SseEmitter.event().comment("keep-alive").build();
+        subscribers.values().forEach(viewers -> viewers.forEach(viewer -> viewer.offer(frame)));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatchers.forEach(ThreadPoolExecutor::shutdownNow);
+        if (writers != null) {
+            writers.shutdownNow();
+        }
+        subscribers.values().forEach(viewers -> viewers.forEach(viewer -> viewer.emitter.complete()));
+        subscribers.clear();
+        streamsPerClient.clear();
+    }
+
+    private void dispatch(Long showId, SeatStatusEvent event) {
+        List<Viewer> viewers = subscribers.get(showId);
+        if (viewers == null || viewers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            logger.warn("Seat status event for show {} not serialisable: {}", showId, e.getMessage());
+            return;
+        }
+        // Built once and shared: every viewer gets the same pre-rendered frame
+        Set<ResponseBodyEmitter.DataWithMediaType> frame =
+                SseEmitter.event().name("seat-status").data(json, MediaType.APPLICATION_JSON).build();
+        for (Viewer viewer : viewers) {
+            viewer.offer(frame);
+        }
+    }
+
+    private ThreadPoolExecutor dispatcherFor(Long showId) {
+        return dispatchers.get(Math.floorMod(showId.hashCode(), dispatchers.size()));
+    }
+
+    private boolean reserveClientStream(String client) {
+        int perClient = Math.max(1, maxStreamsPerClient);
+        boolean[] reserved = {false};
+        streamsPerClient.compute(client, (k, count) -> {
+            int current = count == null ? 0 : count;
+            if (current >= perClient) {
+                return count;
+            }
+            reserved[0] = true;
+            return current + 1;
+        });
+        return reserved[0];
+    }
+
+    private void releaseClientStream(String client) {
+        streamsPerClient.computeIfPresent(client, (k, count) -> count <= 1 ? null : count - 1);
+    }
+
+    /**
+     * One connected viewer and the frames waiting to be written to it. At
+     * most one writer drains it at a time ({@code scheduled}); once closed it
+     * is never scheduled again except to complete the emitter.
+     */
+    private final class Viewer {
+        private final Long showId;
+        private final String client;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> pending =
+                new ArrayBlockingQueue<>(VIEWER_QUEUE_FRAMES);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Viewer(Long showId, String client, SseEmitter emitter) {
+            this.showId = showId;
+            this.client = client;
+            this.emitter = emitter;
+        }
+
+        /** Queues a frame without blocking; a viewer that is too far behind is dropped. */
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+            if (closed.get()) {
+                return;
+            }
+            if (!pending.offer(frame)) {
+                logger.info("Dropping lagging seat status viewer of show {}", showId);
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        /** Unregisters the viewer and completes its stream on a writer thread. */
+        void drop() {
+            close();
+            schedule();
+        }
+
+        /** Unregisters the viewer; safe to call more than once. */
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.computeIfPresent(showId, (k, viewers) -> {
+                    viewers.remove(this);
+                    return viewers.isEmpty() ? null : viewers;
+                });
+                releaseClientStream(client);
+            }
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    writers.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            Set<ResponseBodyEmitter.DataWithMediaType> frame;
+            while (!closed.get() && (frame = pending.poll()) != null) {
+                try {
+                    emitter.send(frame);
+                } catch (IOException | IllegalStateException e) {
+                    close();
+                }
+            }
+            if (closed.get()) {
+                // Completed here rather than by the caller of drop(), which
+                // would wait behind a write still in progress
+                pending.clear();
+                emitter.complete();
+                return;
+            }
+            scheduled.set(false);
+            // A frame or a drop() may have arrived while this was finishing
+            if (closed.get() || !pending.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
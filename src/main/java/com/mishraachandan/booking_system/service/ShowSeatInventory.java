@@ -0,0 +1,563 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.pojo.SeatMapDelta;
+import com.mishraachandan.booking_system.dto.pojo.SeatMapResponse;
+import com.mishraachandan.booking_system.dto.pojo.ShowAvailability;
+import com.mishraachandan.booking_system.dto.pojo.ShowHeader;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatResponse;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatState;
+import com.mishraachandan.booking_system.dto.status.SeatType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory seat inventory for a single show.
+ *
+ * Seats are addressed by their position in the seat map (ordered by seat
+ * number). Static data (ids, seat numbers, seat types) comes from the
+ * screen's cached {@link ScreenSeatLayout} and lives in plain arrays fixed at
+ * build time; the mutable state — status, lock owner, lock time and
+ * price — lives in parallel arrays indexed by the same position. Status is a
+ * single byte per seat holding the {@link SeatStatus} ordinal, so a 300-seat
+ * show costs a few KB and every availability check or transition is an array
+ * read/write under the instance monitor, with no database round trip.
+ *
+ * Per-status seat counts are kept alongside, so availability badges never
+ * need a scan.
+ *
+ * Every seat transition bumps the show's version and is recorded in a
+ * fixed-size ring of (version, seat) pairs, which backs ETags and
+ * "changed since version N" deltas. Versions start at the build time in
+ * microseconds, so they keep increasing across rebuilds and restarts.
+ *
+ * All mutators are {@code synchronized}: a multi-seat lock is checked and
+ * applied as one step, so two users can never both win the same seat on
+ * this node. The database remains the arbiter across nodes; seats it
+ * disagrees on are overwritten through {@link #applyState(ShowSeatState)}.
+ */
+public final class ShowSeatInventory {
+
+    private static final SeatStatus[] STATUSES = SeatStatus.values();
+    private static final byte AVAILABLE = (byte) SeatStatus.AVAILABLE.ordinal();
+    private static final byte LOCKED = (byte) SeatStatus.LOCKED.ordinal();
+    private static final byte BOOKED = (byte) SeatStatus.BOOKED.ordinal();
+    // Best-available scoring: one row away from the ideal row costs as much as
+    // being this many seats off-centre
+    private static final double ROW_WEIGHT = 2.0;
+    // Minimum number of seat changes kept for delta reads
+    private static final int MIN_HISTORY = 256;
+    private static final String[] STATUS_NAMES = Arrays.stream(STATUSES).map(Enum::name).toArray(String[]::new);
+    private static final String[] SEAT_TYPE_NAMES =
+            Arrays.stream(SeatType.values()).map(Enum::name).toArray(String[]::new);
+
+    private final Long showId;
+    private final ShowHeader header;
+
+    // Static layout, fixed at build time
+    private final long[] showSeatIds;
+    private final long[] seatIds;
+    private final String[] seatNumbers;
+    private final String[] seatTypes;
+    private final byte[] seatTypeOrdinals;
+    // Seat grid for the best-available allocator: positions per row (front
+    // row first), each row ordered by column; seats without a row are left out
+    private final int[] columnOf;
+    private final int[][] rowPositions;
+    private final Map<Long, Integer> positions;
+
+    // Mutable state, guarded by this
+    private final byte[] states;
+    private final long[] lockedBy;   // 0 = not locked
+    private final long[] lockedAt;   // epoch millis, 0 = not locked
+    private final BigDecimal[] prices;
+    // Seats per status (indexed by SeatStatus ordinal), kept in step with states
+    private final int[] statusCounts = new int[STATUSES.length];
+
+    // Version history, guarded by this: ring of (version, position) per seat change
+    private final long baseVersion;
+    private long version;
+    private final long[] changeVersions;
+    private final int[] changePositions;
+    private int changeHead;
+    private int changeCount;
+
+    /**
+     * @param layout  physical seats of the show's screen, in display order
+     * @param overlay one row per ShowSeat of the show; seats are placed in
+     *                layout order, and rows whose seat is not on the screen
+     *                are left out
+     */
+    ShowSeatInventory(ShowHeader header, ScreenSeatLayout layout, List<ShowSeatState> overlay) {
+        List<ShowSeatState> rows = new ArrayList<>(overlay.size());
+        for (ShowSeatState row : overlay) {
+            if (layout.indexOf(row.getSeatId()) >= 0) {
+                rows.add(row);
+            }
+        }
+        rows.sort(Comparator.comparingInt(row -> layout.indexOf(row.getSeatId())));
+
+        int n = rows.size();
+        this.showId = header.getShowId();
+        this.header = header;
+        this.showSeatIds = new long[n];
+        this.seatIds = new long[n];
+        this.seatNumbers = new String[n];
+        this.seatTypes = new String[n];
+        this.seatTypeOrdinals = new byte[n];
+        this.positions = new HashMap<>(n * 2);
+        this.states = new byte[n];
+        this.lockedBy = new long[n];
+        this.lockedAt = new long[n];
+        this.prices = new BigDecimal[n];
+        this.baseVersion = System.currentTimeMillis() * 1000;
+        this.version = baseVersion;
+        int historySize = Math.max(MIN_HISTORY, 4 * n);
+        this.changeVersions = new long[historySize];
+        this.changePositions = new int[historySize];
+        statusCounts[AVAILABLE] = n; // states[] starts all-AVAILABLE
+
+        for (int i = 0; i < n; i++) {
+            ShowSeatState row = rows.get(i);
+            int seat = layout.indexOf(row.getSeatId());
+            showSeatIds[i] = row.getShowSeatId();
+            seatIds[i] = layout.seatIdAt(seat);
+            seatNumbers[i] = layout.seatNumberAt(seat);
+            seatTypes[i] = layout.seatTypeAt(seat).name();
+            seatTypeOrdinals[i] = (byte) layout.seatTypeAt(seat).ordinal();
+            positions.put(row.getShowSeatId(), i);
+            applyState(i, row);
+        }
+
+        this.columnOf = new int[n];
+        List<List<Integer>> grid = new ArrayList<>();
+        for (int r = 0; r < layout.rowCount(); r++) {
+            grid.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            int seat = layout.indexOf(seatIds[i]);
+            columnOf[i] = layout.columnAt(seat);
+            if (layout.rowAt(seat) >= 0) {
+                grid.get(layout.rowAt(seat)).add(i);
+            }
+        }
+        this.rowPositions = new int[grid.size()][];
+        for (int r = 0; r < grid.size(); r++) {
+            rowPositions[r] = grid.get(r).stream()
+                    .sorted(Comparator.comparingInt(p -> columnOf[p]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+    }
+
+    public Long getShowId() {
+        return showId;
+    }
+
+    public ShowHeader getHeader() {
+        return header;
+    }
+
+    public int size() {
+        return showSeatIds.length;
+    }
+
+    public boolean contains(Long showSeatId) {
+        return positions.containsKey(showSeatId);
+    }
+
+    List<Long> showSeatIds() {
+        List<Long> out = new ArrayList<>(showSeatIds.length);
+        for (long id : showSeatIds) {
+            out.add(id);
+        }
+        return out;
+    }
+
+    // ─── Transitions ──────────────────────────────────────────────────────────
+
+    /**
+     * Locks every seat in {@code ids} for {@code userId}, or none of them.
+     *
+     * @return false if any seat is not AVAILABLE
+     * @throws IllegalArgumentException if an id does not belong to this show
+     */
+    public synchronized boolean tryLock(List<Long> ids, long userId, long nowMillis) {
+        int[] pos = positionsOf(ids);
+        for (int p : pos) {
+            if (states[p] != AVAILABLE) {
+                return false;
+            }
+        }
+        for (int p : pos) {
+            setStatus(p, LOCKED);
+            lockedBy[p] = userId;
+            lockedAt[p] = nowMillis;
+            recordChange(p);
+        }
+        return true;
+    }
+
+    /**
+     * Finds the best block of {@code count} adjacent AVAILABLE seats in one
+     * row, optionally of one seat type, in a single pass over the seat grid.
+     *
+     * A block is scored by how far its row is from the "ideal" row (two
+     * thirds of the way back) plus how far its centre is from the row's
+     * centre; the lowest score wins. Adjacent means consecutive column
+     * numbers, so aisles or missing seat numbers break a block.
+     *
+     * @return the block's showSeatIds in column order, or an empty list if
+     *         no such block is free
+     */
+    public synchronized List<Long> findBestAvailable(int count, SeatType seatType) {
+        if (count <= 0 || rowPositions.length == 0) {
+            return List.of();
+        }
+        double idealRow = (rowPositions.length - 1) * 2 / 3.0;
+        int wantType = seatType == null ? -1 : seatType.ordinal();
+        double bestScore = Double.MAX_VALUE;
+        int bestRow = -1;
+        int bestEnd = -1;
+
+        for (int r = 0; r < rowPositions.length; r++) {
+            int[] row = rowPositions[r];
+            if (row.length < count) {
+                continue;
+            }
+            double rowPenalty = Math.abs(r - idealRow) * ROW_WEIGHT;
+            if (rowPenalty >= bestScore) {
+                continue;
+            }
+            double rowCentre = (columnOf[row[0]] + columnOf[row[row.length - 1]]) / 2.0;
+            int run = 0;
+            for (int k = 0; k < row.length; k++) {
+                int p = row[k];
+                if (states[p] != AVAILABLE || (wantType >= 0 && seatTypeOrdinals[p] != wantType)) {
+                    run = 0;
+                    continue;
+                }
+                boolean adjacent = run > 0 && columnOf[p] == columnOf[row[k - 1]] + 1;
+                run = adjacent ? run + 1 : 1;
+                if (run >= count) {
+                    double blockCentre = (columnOf[row[k - count + 1]] + columnOf[p]) / 2.0;
+                    double score = rowPenalty + Math.abs(blockCentre - rowCentre);
+                    if (score < bestScore) {
+                        bestScore = score;
+                        bestRow = r;
+                        bestEnd = k;
+                    }
+                }
+            }
+        }
+
+        if (bestRow < 0) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(count);
+        for (int k = bestEnd - count + 1; k <= bestEnd; k++) {
+            ids.add(showSeatIds[rowPositions[bestRow][k]]);
+        }
+        return ids;
+    }
+
+    /**
+     * Moves a LOCKED seat back to AVAILABLE.
+     *
+     * @return true if the seat was locked and is now available
+     */
+    public synchronized boolean unlock(Long showSeatId) {
+        Integer p = positions.get(showSeatId);
+        if (p == null || states[p] != LOCKED) {
+            return false;
+        }
+        clear(p, AVAILABLE);
+        return true;
+    }
+
+    /**
+     * Validates that every seat is LOCKED by {@code userId} and can therefore
+     * be booked. Error messages mirror the ones the booking endpoint has always
+     * returned.
+     */
+    public synchronized void checkBookable(List<Long> ids, Long userId) {
+        int[] pos = positionsOf(ids);
+        for (int p : pos) {
+            if (states[p] == BOOKED) {
+                throw new IllegalStateException("Seat " + seatNumbers[p] + " is already booked");
+            }
+            if (states[p] == LOCKED && (userId == null || lockedBy[p] != userId)) {
+                throw new IllegalStateException("Seat " + seatNumbers[p] + " is locked by another user");
+            }
+            if (states[p] == AVAILABLE) {
+                throw new IllegalStateException(
+                        "Seat " + seatNumbers[p] + " must be locked before booking. Please lock it first.");
+            }
+        }
+    }
+
+    /** Marks seats BOOKED. Unknown ids are ignored. */
+    public synchronized void book(Collection<Long> ids) {
+        for (Long id : ids) {
+            Integer p = positions.get(id);
+            if (p != null) {
+                clear(p, BOOKED);
+            }
+        }
+    }
+
+    /** Returns seats to AVAILABLE whatever their current status. Unknown ids are ignored. */
+    public synchronized void release(Collection<Long> ids) {
+        for (Long id : ids) {
+            Integer p = positions.get(id);
+            if (p != null) {
+                clear(p, AVAILABLE);
+            }
+        }
+    }
+
+    /**
+     * Releases every lock taken before {@code cutoffMillis}.
+     *
+     * @return the showSeatIds that were released
+     */
+    public synchronized List<Long> expireLocks(long cutoffMillis) {
+        List<Long> expired = new ArrayList<>();
+        for (int p = 0; p < states.length; p++) {
+            if (states[p] == LOCKED && lockedAt[p] < cutoffMillis) {
+                clear(p, AVAILABLE);
+                expired.add(showSeatIds[p]);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Releases those of {@code ids} whose lock was taken at or before
+     * {@code cutoffMillis}. Unknown, unlocked or re-locked seats are ignored.
+     *
+     * @return the showSeatIds that were released
+     */
+    public synchronized List<Long> expireLocks(Collection<Long> ids, long cutoffMillis) {
+        List<Long> expired = new ArrayList<>();
+        for (Long id : ids) {
+            Integer p = positions.get(id);
+            if (p != null && states[p] == LOCKED && lockedAt[p] <= cutoffMillis) {
+                clear(p, AVAILABLE);
+                expired.add(id);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Overwrites one seat's mutable state with a row read from the database.
+     * Unknown ids are ignored; a seat that already matches is left untouched
+     * (no version bump).
+     */
+    public synchronized void applyState(ShowSeatState state) {
+        Integer p = positions.get(state.getShowSeatId());
+        if (p == null) {
+            return;
+        }
+        long owner = state.getLockedByUserId() == null ? 0L : state.getLockedByUserId();
+        boolean same = states[p] == state.getStatus().ordinal()
+                && (state.getStatus() != SeatStatus.LOCKED || lockedBy[p] == owner)
+                && prices[p] != null && state.getPrice() != null && prices[p].compareTo(state.getPrice()) == 0;
+        if (!same) {
+            applyState(p, state);
+            recordChange(p);
+        }
+    }
+
+    private void applyState(int p, ShowSeatState state) {
+        setStatus(p, (byte) state.getStatus().ordinal());
+        prices[p] = state.getPrice();
+        if (state.getStatus() == SeatStatus.LOCKED) {
+            lockedBy[p] = state.getLockedByUserId() == null ? 0L : state.getLockedByUserId();
+            lockedAt[p] = state.getLockedAt() == null ? System.currentTimeMillis()
+                    : state.getLockedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } else {
+            lockedBy[p] = 0L;
+            lockedAt[p] = 0L;
+        }
+    }
+
+    private void clear(int p, byte state) {
+        setStatus(p, state);
+        lockedBy[p] = 0L;
+        lockedAt[p] = 0L;
+        recordChange(p);
+    }
+
+    private void setStatus(int p, byte state) {
+        statusCounts[states[p]]--;
+        statusCounts[state]++;
+        states[p] = state;
+    }
+
+    private void recordChange(int p) {
+        version++;
+        changeVersions[changeHead] = version;
+        changePositions[changeHead] = p;
+        changeHead = (changeHead + 1) % changeVersions.length;
+        if (changeCount < changeVersions.length) {
+            changeCount++;
+        }
+    }
+
+    // ─── Reads ────────────────────────────────────────────────────────────────
+
+    public synchronized SeatStatus statusOf(Long showSeatId) {
+        Integer p = positions.get(showSeatId);
+        return p == null ? null : STATUSES[states[p]];
+    }
+
+    public synchronized BigDecimal priceOf(Long showSeatId) {
+        Integer p = positions.get(showSeatId);
+        return p == null ? null : prices[p];
+    }
+
+    public synchronized void setPrice(Long showSeatId, BigDecimal price) {
+        Integer p = positions.get(showSeatId);
+        if (p != null && (prices[p] == null || prices[p].compareTo(price) != 0)) {
+            prices[p] = price;
+            recordChange(p);
+        }
+    }
+
+    /** Seat counts per status, maintained on every transition. */
+    public synchronized ShowAvailability availability() {
+        return new ShowAvailability(showId, states.length,
+                statusCounts[AVAILABLE], statusCounts[LOCKED], statusCounts[BOOKED]);
+    }
+
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    /**
+     * Seats changed after {@code sinceVersion}. Falls back to every seat when
+     * the history no longer reaches back that far, or the version was not
+     * issued by this inventory.
+     */
+    public synchronized SeatMapDelta changesSince(long sinceVersion) {
+        int capacity = changeVersions.length;
+        long coveredFrom = changeCount < capacity
+                ? baseVersion
+                : changeVersions[changeHead] - 1; // oldest retained entry
+        List<ShowSeatState> seats = new ArrayList<>();
+        if (sinceVersion < coveredFrom || sinceVersion > version) {
+            for (int p = 0; p < states.length; p++) {
+                seats.add(stateAt(p));
+            }
+            return new SeatMapDelta(showId, sinceVersion, version, true, seats);
+        }
+        boolean[] seen = new boolean[states.length];
+        for (int i = 0; i < changeCount; i++) {
+            int slot = Math.floorMod(changeHead - 1 - i, capacity);
+            if (changeVersions[slot] <= sinceVersion) {
+                break;
+            }
+            int p = changePositions[slot];
+            if (!seen[p]) {
+                seen[p] = true;
+                seats.add(stateAt(p));
+            }
+        }
+        return new SeatMapDelta(showId, sinceVersion, version, false, seats);
+    }
+
+    private ShowSeatState stateAt(int p) {
+        return new ShowSeatState(showSeatIds[p], seatIds[p], prices[p], STATUSES[states[p]],
+                lockedBy[p] == 0L ? null : lockedBy[p],
+                lockedAt[p] == 0L ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(lockedAt[p]), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Materialises the flat seat-map DTOs, optionally filtered to one status.
+     *
+     * @param only status filter, or null for every seat
+     */
+    public synchronized List<ShowSeatResponse> toResponses(SeatStatus only) {
+        List<ShowSeatResponse> out = new ArrayList<>(states.length);
+        for (int p = 0; p < states.length; p++) {
+            if (only != null && states[p] != only.ordinal()) {
+                continue;
+            }
+            out.add(new ShowSeatResponse(
+                    showSeatIds[p], prices[p], STATUSES[states[p]],
+                    lockedBy[p] == 0L ? null : lockedBy[p],
+                    seatIds[p], seatNumbers[p], seatTypes[p],
+                    header.getShowId(), header.getStartTime(), header.getEndTime(),
+                    header.getMovieTitle(), header.getMoviePosterUrl(), header.getMovieGenre(),
+                    header.getMovieLanguage(), header.getMovieDurationMinutes(),
+                    header.getScreenName(), header.getCinemaName(), header.getCinemaAddress(),
+                    header.getCityName()));
+        }
+        return out;
+    }
+
+    /**
+     * Snapshots the seat map in the compact columnar form. Static columns are
+     * shared with the caller read-only; mutable ones are copied under the lock.
+     */
+    public synchronized SeatMapResponse toSeatMap() {
+        int n = states.length;
+        Long[] owners = new Long[n];
+        for (int p = 0; p < n; p++) {
+            owners[p] = lockedBy[p] == 0L ? null : lockedBy[p];
+        }
+        return new SeatMapResponse(header, version, SEAT_TYPE_NAMES, STATUS_NAMES,
+                showSeatIds.clone(), seatIds.clone(), seatNumbers.clone(), ordinals(seatTypeOrdinals),
+                ordinals(states), prices.clone(), owners);
+    }
+
+    private static int[] ordinals(byte[] column) {
+        int[] out = new int[column.length];
+        for (int p = 0; p < column.length; p++) {
+            out[p] = column[p];
+        }
+        return out;
+    }
+
+    /**
+     * Packs every seat's status into 2 bits, in seat-map order: seat {@code p}
+     * sits in byte {@code p / 4} at bit offset {@code (p % 4) * 2}, holding
+     * the {@link SeatStatus} ordinal.
+     */
+    public synchronized byte[] packStatuses() {
+        byte[] packed = new byte[(states.length + 3) / 4];
+        for (int p = 0; p < states.length; p++) {
+            packed[p >> 2] |= (byte) ((states[p] & 0b11) << ((p & 3) << 1));
+        }
+        return packed;
+    }
+
+    private int[] positionsOf(List<Long> ids) {
+        int[] pos = new int[ids.size()];
+        for (int i = 0; i < pos.length; i++) {
+            Integer p = positions.get(ids.get(i));
+            if (p == null) {
+                throw new IllegalArgumentException("Some ShowSeat IDs were not found");
+            }
+            for (int j = 0; j < i; j++) {
+                if (pos[j] == p) {
+                    throw new IllegalArgumentException("Some ShowSeat IDs were not found");
+                }
+            }
+            pos[i] = p;
+        }
+        return pos;
+    }
+}
@@ -1,21 +1,46 @@
 package com.mishraachandan.booking_system.service;
 
+import com.mishraachandan.booking_system.config.SchedulingConfig;
 import com.mishraachandan.booking_system.dto.entity.ShowSeat;
 import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.pojo.SeatMapDelta;
+import com.mishraachandan.booking_system.dto.pojo.ShowAvailability;
+import com.mishraachandan.booking_system.dto.pojo.SeatMapResponse;
 import com.mishraachandan.booking_system.dto.pojo.ShowSeatResponse;
+import com.mishraachandan.booking_system.dto.status.SeatType;
 import com.mishraachandan.booking_system.repository.ShowSeatRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for managing temporary seat locks on ShowSeats.
  * A user locks seats while selecting, then confirms/pays within a TTL window.
+ *
+ * Locks are taken with a compare-and-set UPDATE on show_seats, decided by the
+ * affected row count. The in-memory {@link ShowSeatInventory} is only a cheap
+ * pre-check that turns away obvious conflicts without a round trip; seat-map
+ * reads are served from the same inventory.
+ *
+ * Expiry is driven by a {@link TimingWheel} keyed by lock deadline: every
+ * second the seats whose 8 minutes are up are released in batched
+ * conditional UPDATEs. A full-table sweep still runs every 10 minutes as a
+ * safety net for locks this node did not take (other nodes, lost timers).
  */
 @Service
 public class ShowSeatLockService {
@@ -24,11 +49,32 @@ public class ShowSeatLockService {
 
     // Lock timeout in minutes
     private static final int LOCK_TIMEOUT_MINUTES = 8;
+    static final long LOCK_TIMEOUT_MILLIS = LOCK_TIMEOUT_MINUTES * 60_000L;
+
+    // Expiry wheel: 1s ticks, 64 slots per level
+    private static final long EXPIRY_TICK_MILLIS = 1000;
+    private static final int EXPIRY_WHEEL_SIZE = 64;
+    // Search-and-lock retries when a best-available block is taken concurrently
+    private static final int BEST_AVAILABLE_ATTEMPTS = 3;
+    // Max ids per expiry UPDATE (keeps the IN list bounded)
+    private static final int EXPIRY_BATCH_SIZE = 500;
 
     private final ShowSeatRepository showSeatRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final TransactionTemplate transactionTemplate;
+    private final SeatStatusBroadcaster seatStatusBroadcaster;
+    // Items are the showSeatIds of one lock, due LOCK_TIMEOUT after it was taken
+    private final TimingWheel<List<Long>> lockExpiries =
+            new TimingWheel<>(EXPIRY_TICK_MILLIS, EXPIRY_WHEEL_SIZE, System.currentTimeMillis());
 
-    public ShowSeatLockService(ShowSeatRepository showSeatRepository) {
+    public ShowSeatLockService(ShowSeatRepository showSeatRepository,
+                               SeatInventoryService seatInventoryService,
+                               PlatformTransactionManager transactionManager,
+                               SeatStatusBroadcaster seatStatusBroadcaster) {
         this.showSeatRepository = showSeatRepository;
+        this.seatInventoryService = seatInventoryService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.seatStatusBroadcaster = seatStatusBroadcaster;
     }
 
     /**
@@ -36,70 +82,104 @@ public class ShowSeatLockService {
      *
      * @return true if lock was successful, false otherwise.
      */
-    @Transactional
     public boolean lockShowSeat(Long showSeatId, Long userId) {
-        ShowSeat showSeat = showSeatRepository.findById(showSeatId)
-                .orElseThrow(() -> new IllegalArgumentException("ShowSeat not found: " + showSeatId));
-
-        if (showSeat.getStatus() != SeatStatus.AVAILABLE) {
-            logger.info("ShowSeat {} is not available. Current status: {}", showSeatId, showSeat.getStatus());
-            return false;
+        ShowSeatInventory inventory = seatInventoryService.getBySeatId(showSeatId);
+        if (inventory == null) {
+            throw new IllegalArgumentException("ShowSeat not found: " + showSeatId);
         }
-
-        showSeat.setStatus(SeatStatus.LOCKED);
-        showSeat.setLockedAt(LocalDateTime.now());
-        showSeat.setLockedByUserId(userId);
-        showSeatRepository.save(showSeat);
-
-        logger.info("ShowSeat {} locked by user {}", showSeatId, userId);
-        return true;
+        return lockShowSeats(inventory.getShowId(), List.of(showSeatId), userId);
     }
 
     /**
-     * Lock multiple ShowSeats for a user atomically.
+     * Lock multiple ShowSeats of a show for a user atomically.
      * If any seat is not available, none are locked.
+     *
+     * The database decides: one conditional UPDATE locks only rows that are
+     * still AVAILABLE, and a row count short of the request rolls the partial
+     * lock back. The in-memory inventory is locked first; when it refuses,
+     * the UPDATE still runs, since this node's copy may be stale (another
+     * node unlocked, released or expired the seats). Whenever the outcome
+     * differs from what memory predicted, the seats are re-read from the
+     * database, which corrects the stale inventory.
      */
-    @Transactional
-    public boolean lockShowSeats(List<Long> showSeatIds, Long userId) {
-        List<ShowSeat> showSeats = showSeatRepository.findAllById(showSeatIds);
+    public boolean lockShowSeats(Long showId, List<Long> showSeatIds, Long userId) {
+        ShowSeatInventory inventory = seatInventoryService.get(showId);
+        long now = System.currentTimeMillis();
+
+        boolean reserved = inventory.tryLock(showSeatIds, userId, now);
 
-        if (showSeats.size() != showSeatIds.size()) {
-            throw new IllegalArgumentException("Some ShowSeat IDs were not found");
+        Boolean locked;
+        try {
+            locked = transactionTemplate.execute(status -> {
+                int rows = showSeatRepository.lockIfAvailable(
+                        showId, showSeatIds, userId, SeatInventoryService.toLocalDateTime(now));
+                if (rows != showSeatIds.size()) {
+                    status.setRollbackOnly();
+                    return false;
+                }
+                return true;
+            });
+        } catch (RuntimeException e) {
+            seatInventoryService.evict(showId);
+            throw e;
         }
 
-        // Check all are available first
-        for (ShowSeat ss : showSeats) {
-            if (ss.getStatus() != SeatStatus.AVAILABLE) {
-                logger.info("ShowSeat {} is not available. Current status: {}", ss.getId(), ss.getStatus());
-                return false;
+        if (!Boolean.TRUE.equals(locked)) {
+            if (reserved) {
+                seatInventoryService.resync(showId, showSeatIds);
             }
+            logger.info("ShowSeats {} of show {} are not all available", showSeatIds, showId);
+            return false;
         }
-
-        // Lock all
-        LocalDateTime now = LocalDateTime.now();
-        for (ShowSeat ss : showSeats) {
-            ss.setStatus(SeatStatus.LOCKED);
-            ss.setLockedAt(now);
-            ss.setLockedByUserId(userId);
+        if (!reserved) {
+            // Memory said taken but the database had them free: stale copy
+            seatInventoryService.resync(showId, showSeatIds);
+            logger.info("Seat inventory of show {} was stale for {}", showId, showSeatIds);
         }
-        showSeatRepository.saveAll(showSeats);
 
-        logger.info("Locked {} ShowSeats for user {}", showSeats.size(), userId);
+        lockExpiries.schedule(List.copyOf(showSeatIds), now + LOCK_TIMEOUT_MILLIS);
+        seatStatusBroadcaster.publish(showId, SeatStatus.LOCKED, showSeatIds, userId);
+        logger.info("Locked {} ShowSeats for user {}", showSeatIds.size(), userId);
         return true;
     }
 
+    /**
+     * Finds the best contiguous block of {@code count} seats (optionally of
+     * one seat type) and locks it for the user. If another user takes part of
+     * the block between search and lock, the search is retried a few times.
+     *
+     * @return the locked showSeatIds, or an empty list if no block is free
+     */
+    public List<Long> lockBestAvailable(Long showId, int count, SeatType seatType, Long userId) {
+        ShowSeatInventory inventory = seatInventoryService.get(showId);
+        for (int attempt = 0; attempt < BEST_AVAILABLE_ATTEMPTS; attempt++) {
+            List<Long> block = inventory.findBestAvailable(count, seatType);
+            if (block.isEmpty()) {
+                return block;
+            }
+            if (lockShowSeats(showId, block, userId)) {
+                return block;
+            }
+        }
+        return List.of();
+    }
+
     /**
      * Unlock a ShowSeat (e.g., user deselects or booking fails).
+     * Only LOCKED seats are affected — a BOOKED seat is never freed here.
      */
     @Transactional
     public void unlockShowSeat(Long showSeatId) {
-        showSeatRepository.findById(showSeatId).ifPresent(ss -> {
-            ss.setStatus(SeatStatus.AVAILABLE);
-            ss.setLockedAt(null);
-            ss.setLockedByUserId(null);
-            showSeatRepository.save(ss);
-            logger.info("ShowSeat {} unlocked", showSeatId);
+        if (showSeatRepository.unlockIfLocked(showSeatId) == 0) {
+            return;
+        }
+        seatInventoryService.afterCommit(() -> {
+            ShowSeatInventory inventory = seatInventoryService.getBySeatId(showSeatId);
+            if (inventory != null && inventory.unlock(showSeatId)) {
+                seatStatusBroadcaster.publish(inventory.getShowId(), SeatStatus.AVAILABLE, List.of(showSeatId), null);
+            }
         });
+        logger.info("ShowSeat {} unlocked", showSeatId);
     }
 
     /**
@@ -112,16 +192,79 @@ public class ShowSeatLockService {
             ss.setLockedAt(null);
             ss.setLockedByUserId(null);
             showSeatRepository.save(ss);
+            seatInventoryService.afterCommit(() -> {
+                ShowSeatInventory inventory = seatInventoryService.getBySeatId(showSeatId);
+                if (inventory != null) {
+                    inventory.book(List.of(showSeatId));
+                    seatStatusBroadcaster.publish(inventory.getShowId(), SeatStatus.BOOKED, List.of(showSeatId), null);
+                }
+            });
             logger.info("ShowSeat {} marked as booked", showSeatId);
         });
     }
 
     /**
-     * Get all available ShowSeats for a specific show.
+     * Get all available ShowSeats for a specific show, from the in-memory inventory.
      */
-    @Transactional(readOnly = true)
-    public List<ShowSeat> getAvailableShowSeats(Long showId) {
-        return showSeatRepository.findByShowIdAndStatus(showId, SeatStatus.AVAILABLE);
+    public List<ShowSeatResponse> getAvailableShowSeats(Long showId) {
+        return seatInventoryService.get(showId).toResponses(SeatStatus.AVAILABLE);
+    }
+
+    /**
+     * Seat counts per status for many shows, in request order.
+     */
+    public List<ShowAvailability> getAvailability(List<Long> showIds) {
+        return seatInventoryService.availability(showIds.stream().distinct().toList());
+    }
+
+    /**
+     * Current seat-map version of a show; bumped on every seat transition.
+     */
+    public long getSeatMapVersion(Long showId) {
+        return seatInventoryService.get(showId).getVersion();
+    }
+
+    /**
+     * Seats of a show changed after {@code sinceVersion} (every seat when
+     * that version is too old or unknown).
+     */
+    public SeatMapDelta getSeatMapChanges(Long showId, long sinceVersion) {
+        return seatInventoryService.get(showId).changesSince(sinceVersion);
+    }
+
+    /**
+     * Compact columnar seat map (header once, parallel seat arrays), from the
+     * in-memory inventory.
+     */
+    public SeatMapResponse getSeatMap(Long showId) {
+        return seatInventoryService.get(showId).toSeatMap();
+    }
+
+    /**
+     * Binary seat statuses for a show: an 8-byte showId, a 4-byte seat count,
+     * then 2 bits per seat in seat-map order (see
+     * {@link ShowSeatInventory#packStatuses()}). Pairs with the layout from
+     * {@link #getSeatMap(Long)}.
+     */
+    public byte[] getPackedSeatStatuses(Long showId) {
+        ShowSeatInventory inventory = seatInventoryService.get(showId);
+        byte[] packed = inventory.packStatuses();
+        return ByteBuffer.allocate(12 + packed.length)
+                .putLong(showId)
+                .putInt(inventory.size())
+                .put(packed)
+                .array();
+    }
+
+    /**
+     * Opens a live stream of seat-status deltas for a show. The show's
+     * inventory is loaded first so every later transition is routed to it.
+     *
+     * @return the stream, or null when the show or client has too many open
+     */
+    public SseEmitter streamSeatStatus(Long showId, String clientIp) {
+        seatInventoryService.get(showId);
+        return seatStatusBroadcaster.subscribe(showId, clientIp);
     }
 
     /**
@@ -134,25 +277,94 @@ public class ShowSeatLockService {
 
     /**
      * Get all ShowSeats for a show as a flat, serialization-safe DTO list.
-     * Uses a single JOIN query — no Hibernate proxies, no lazy loading issues.
+     * Served from the in-memory inventory — no query once the show is loaded.
      */
-    @Transactional(readOnly = true)
     public List<ShowSeatResponse> getAllShowSeatResponses(Long showId) {
-        return showSeatRepository.findShowSeatResponsesByShowId(showId);
+        return seatInventoryService.get(showId).toResponses(null);
+    }
+
+    // ─── Expiry ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Re-arms the expiry wheel with every lock already held in show_seats,
+     * so locks taken before a restart still expire on time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleExistingLocks() {
+        List<Object[]> rows;
+        try {
+            rows = showSeatRepository.findActiveLocks();
+        } catch (Exception e) {
+            logger.warn("Lock expiry wheel not re-armed: {}", e.getMessage());
+            return;
+        }
+        Map<LocalDateTime, List<Long>> byLockTime = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDateTime lockedAt = row[2] != null ? (LocalDateTime) row[2] : LocalDateTime.now();
+            byLockTime.computeIfAbsent(lockedAt, k -> new ArrayList<>()).add((Long) row[1]);
+        }
+        byLockTime.forEach((lockedAt, ids) -> lockExpiries.schedule(ids,
+                lockedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + LOCK_TIMEOUT_MILLIS));
+        if (!rows.isEmpty()) {
+            logger.info("Scheduled expiry for {} existing ShowSeat locks", rows.size());
+        }
+    }
+
+    /**
+     * Runs every second. Releases exactly the locks that came due since the
+     * last tick, in batched conditional UPDATEs; seats that were unlocked,
+     * booked or re-locked in the meantime are skipped by the WHERE clause.
+     * Runs on the deadline scheduler so long jobs can't delay it.
+     */
+    @Scheduled(fixedRate = EXPIRY_TICK_MILLIS, scheduler = SchedulingConfig.DEADLINE_SCHEDULER)
+    public void expireDueLocks() {
+        long now = System.currentTimeMillis();
+        List<List<Long>> due = lockExpiries.advance(now);
+        if (due.isEmpty()) {
+            return;
+        }
+        List<Long> showSeatIds = new ArrayList<>();
+        due.forEach(showSeatIds::addAll);
+        long cutoffMillis = now - LOCK_TIMEOUT_MILLIS;
+        LocalDateTime cutoffTime = SeatInventoryService.toLocalDateTime(cutoffMillis);
+
+        Integer released = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (int from = 0; from < showSeatIds.size(); from += EXPIRY_BATCH_SIZE) {
+                List<Long> batch = showSeatIds.subList(from, Math.min(from + EXPIRY_BATCH_SIZE, showSeatIds.size()));
+                count += showSeatRepository.releaseExpiredLocks(batch, cutoffTime);
+            }
+            seatInventoryService.afterCommit(() -> seatStatusBroadcaster.publish(
+                    seatInventoryService.expireLocks(showSeatIds, cutoffMillis), SeatStatus.AVAILABLE));
+            return count;
+        });
+
+        if (released != null && released > 0) {
+            logger.info("Released {} expired ShowSeat locks", released);
+        }
     }
 
     /**
-     * Scheduled task to release expired seat locks.
-     * Runs every 1 minute.
+     * Safety-net sweep for expired seat locks the wheel did not cover.
+     * Runs every 10 minutes. Releases expired locks in show_seats with one bulk
+     * UPDATE and, once that commits, mirrors the expiry in every loaded
+     * inventory.
      */
-    @Scheduled(fixedRate = 60000)
+    @Scheduled(fixedRate = 600000)
     @Transactional
     public void releaseExpiredLocks() {
         LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(LOCK_TIMEOUT_MINUTES);
         int releasedCount = showSeatRepository.releaseExpiredLocks(cutoffTime);
+        seatInventoryService.afterCommit(() -> {
+            Map<Long, List<Long>> expired = seatInventoryService.expireLocks(cutoffTime);
+            seatStatusBroadcaster.publish(expired, SeatStatus.AVAILABLE);
+            if (!expired.isEmpty()) {
+                logger.info("Sweep expired locks in memory for {} shows", expired.size());
+            }
+        });
 
         if (releasedCount > 0) {
-            logger.info("Released {} expired ShowSeat locks", releasedCount);
+            logger.info("Sweep released {} expired ShowSeat locks", releasedCount);
         }
     }
 }
@@ -7,18 +7,44 @@ import com.mishraachandan.booking_system.dto.pojo.CreateShowRequest;
 import com.mishraachandan.booking_system.repository.MovieRepository;
 import com.mishraachandan.booking_system.repository.ScreenRepository;
 import com.mishraachandan.booking_system.repository.ShowRepository;
+import com.mishraachandan.booking_system.repository.ShowSeatRepository;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ShowService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ShowService.class);
+
+    // Base ShowSeat price per seat type for newly created shows
+    @Value("${show-seats.base-price.regular:200.00}")
+    private BigDecimal regularPrice;
+
+    @Value("${show-seats.base-price.premium:350.00}")
+    private BigDecimal premiumPrice;
+
+    @Value("${show-seats.base-price.vip:500.00}")
+    private BigDecimal vipPrice;
+
+    @Value("${show-seats.base-price.recliner:200.00}")
+    private BigDecimal reclinerPrice;
+
     private final ShowRepository showRepository;
     private final MovieRepository movieRepository;
     private final ScreenRepository screenRepository;
+    private final ShowSeatRepository showSeatRepository;
 
     public List<Show> getShowsByMovie(Long movieId) {
         return showRepository.findByMovieId(movieId);
@@ -36,23 +62,61 @@ public class ShowService {
         return showRepository.findByCityId(cityId);
     }
 
+    /**
+     * Creates a show and materialises its ShowSeats (one per seat of the
+     * screen, priced by seat type) in the same transaction, so the show is
+     * sellable as soon as the call returns.
+     */
+    @Transactional
     public Show createShow(CreateShowRequest request) {
-        if (!request.getEndTime().isAfter(request.getStartTime())) {
-            throw new IllegalArgumentException("endTime must be after startTime");
+        return createShows(List.of(request)).get(0);
+    }
+
+    /**
+     * Creates many shows in one transaction. Movies and screens are resolved
+     * with one query each and all ShowSeats are generated by a single
+     * INSERT ... SELECT, so a week's schedule costs a handful of statements
+     * plus one insert per show row.
+     */
+    @Transactional
+    public List<Show> createShows(List<CreateShowRequest> requests) {
+        for (CreateShowRequest request : requests) {
+            if (!request.getEndTime().isAfter(request.getStartTime())) {
+                throw new IllegalArgumentException("endTime must be after startTime");
+            }
+        }
+
+        Map<Long, Movie> movies = movieRepository.findAllById(
+                        requests.stream().map(CreateShowRequest::getMovieId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Movie::getId, Function.identity()));
+        Map<Long, Screen> screens = screenRepository.findAllById(
+                        requests.stream().map(CreateShowRequest::getScreenId).collect(Collectors.toSet()))
+                .stream().collect(Collectors.toMap(Screen::getId, Function.identity()));
+
+        List<Show> shows = new ArrayList<>(requests.size());
+        for (CreateShowRequest request : requests) {
+            Movie movie = movies.get(request.getMovieId());
+            if (movie == null) {
+                throw new IllegalArgumentException("Movie not found: " + request.getMovieId());
+            }
+            Screen screen = screens.get(request.getScreenId());
+            if (screen == null) {
+                throw new IllegalArgumentException("Screen not found: " + request.getScreenId());
+            }
+            shows.add(Show.builder()
+                    .movie(movie)
+                    .screen(screen)
+                    .startTime(request.getStartTime())
+                    .endTime(request.getEndTime())
+                    .build());
         }
+        List<Show> saved = showRepository.saveAll(shows);
 
-        Movie movie = movieRepository.findById(request.getMovieId())
-                .orElseThrow(() -> new IllegalArgumentException("Movie not found: " + request.getMovieId()));
-        Screen screen = screenRepository.findById(request.getScreenId())
-                .orElseThrow(() -> new IllegalArgumentException("Screen not found: " + request.getScreenId()));
-
-        Show show = Show.builder()
-                .movie(movie)
-                .screen(screen)
-                .startTime(request.getStartTime())
-                .endTime(request.getEndTime())
-                .build();
-        return showRepository.save(show);
+        int seats = showSeatRepository.materializeForShows(
+                saved.stream().map(Show::getId).toList(),
+                regularPrice, premiumPrice, vipPrice, reclinerPrice);
+        logger.info("Created {} shows with {} show seats", saved.size(), seats);
+        return saved;
     }
 
     public Show getShowById(Long showId) {
@@ -0,0 +1,182 @@
+package com.mishraachandan.booking_system.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel for deadline-driven work (seat-lock expiry,
+ * payment deadlines).
+ *
+ * Level 0 has {@code wheelSize} slots of one tick each; every level above
+ * covers {@code wheelSize} times the span of the one below. An item lands in
+ * the lowest level whose span reaches its deadline and is cascaded down as
+ * the wheel turns, so scheduling is O(1) and each tick only touches the
+ * items that are actually due. With 1s ticks and 64 slots, level 0 covers a
+ * minute and level 1 about an hour — an 8-minute seat lock waits in level 1
+ * and drops into level 0 for its final minute. Extra levels are added on
+ * demand for longer deadlines.
+ *
+ * There is no cancellation: callers re-check the item when it comes due
+ * (e.g. "still LOCKED with the same lockedAt"), which keeps the wheel free
+ * of back-references. All methods are {@code synchronized}.
+ */
+public final class TimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+
+    // levels.get(i)[slot] holds the entries waiting at level i
+    private final List<List<Entry<T>>[]> levels = new ArrayList<>();
+    // Deadlines already in the past when scheduled; returned on the next advance
+    private final List<T> overdue = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be > 0 and wheelSize >= 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTick = startMillis / tickMillis;
+        addLevel();
+    }
+
+    /**
+     * Schedules {@code item} to come due on the first tick at or after
+     * {@code deadlineMillis}.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        long dueTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        size++;
+        place(new Entry<>(item, dueTick));
+    }
+
+    /**
+     * Turns the wheel up to {@code nowMillis} and returns every item whose
+     * deadline has passed, in deadline order (ties in scheduling order).
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> due = new ArrayList<>(overdue);
+        overdue.clear();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick && size > due.size()) {
+            currentTick++;
+            cascade();
+            List<Entry<T>>[] level0 = levels.get(0);
+            int slot = (int) Math.floorMod(currentTick, (long) wheelSize);
+            List<Entry<T>> bucket = level0[slot];
+            if (bucket != null) {
+                level0[slot] = null;
+                for (Entry<T> entry : bucket) {
+                    due.add(entry.item);
+                }
+            }
+        }
+        // Nothing left to expire: jump straight to the target tick
+        if (currentTick < targetTick) {
+            currentTick = targetTick;
+        }
+        size -= due.size();
+        return due;
+    }
+
+    /** Number of items scheduled and not yet returned by {@link #advance(long)}. */
+    public synchronized int size() {
+        return size;
+    }
+
+    // ─── Internals ────────────────────────────────────────────────────────────
+
+    private void place(Entry<T> entry) {
+        long delta = entry.dueTick - currentTick;
+        if (delta <= 0) {
+            overdue.add(entry.item);
+            return;
+        }
+        long span = wheelSize;       // ticks covered by level i
+        long slotTicks = 1;          // ticks per slot at level i
+        for (int level = 0; ; level++) {
+            if (level == levels.size()) {
+                addLevel();
+            }
+            if (delta < span) {
+                int slot = (int) Math.floorMod(entry.dueTick / slotTicks, (long) wheelSize);
+                List<Entry<T>>[] slots = levels.get(level);
+                if (slots[slot] == null) {
+                    slots[slot] = new ArrayList<>();
+                }
+                slots[slot].add(entry);
+                return;
+            }
+            slotTicks = span;
+            span = Math.multiplyExact(span, wheelSize);
+        }
+    }
+
+    /**
+     * On crossing a level boundary, re-places the entries of the slot just
+     * entered at each higher level; they now fit a lower level (or are due).
+     * Highest level first, so entries can fall through several levels.
+     */
+    private void cascade() {
+        long slotTicks = 1;
+        int boundaryLevels = 0;
+        for (int level = 1; level < levels.size(); level++) {
+            slotTicks *= wheelSize;
+            if (Math.floorMod(currentTick, slotTicks) != 0) {
+                break;
+            }
+            boundaryLevels = level;
+        }
+        for (int level = boundaryLevels; level >= 1; level--) {
+            long ticks = pow(wheelSize, level);
+            List<Entry<T>>[] slots = levels.get(level);
+            int slot = (int) Math.floorMod(currentTick / ticks, (long) wheelSize);
+            List<Entry<T>> bucket = slots[slot];
+            if (bucket != null) {
+                slots[slot] = null;
+                for (Entry<T> entry : bucket) {
+                    if (entry.dueTick <= currentTick) {
+                        // Due exactly on this boundary: level 0 picks it up this tick
+                        placeInCurrentSlot(entry);
+                    } else {
+                        place(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void placeInCurrentSlot(Entry<T> entry) {
+        List<Entry<T>>[] level0 = levels.get(0);
+        int slot = (int) Math.floorMod(currentTick, (long) wheelSize);
+        if (level0[slot] == null) {
+            level0[slot] = new ArrayList<>();
+        }
+        level0[slot].add(entry);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addLevel() {
+        levels.add((List<Entry<T>>[]) new List[wheelSize]);
+    }
+
+    private static long pow(long base, int exp) {
+        long result = 1;
+        for (int i = 0; i < exp; i++) {
+            result = Math.multiplyExact(result, base);
+        }
+        return result;
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long dueTick;
+
+        private Entry(T item, long dueTick) {
+            this.item = item;
+            this.dueTick = dueTick;
+        }
+    }
+}
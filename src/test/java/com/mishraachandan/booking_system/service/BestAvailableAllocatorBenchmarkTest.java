@@ -0,0 +1,37 @@
+package com.mishraachandan.booking_system.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of {@link ShowSeatInventory#findBestAvailable} on the 1,000-seat
+ * auditorium from {@link BestAvailableAllocatorTest}. Tagged "benchmark" and
+ * excluded from {@code gradle test}; run it with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class BestAvailableAllocatorBenchmarkTest {
+
+    @Test
+    void searchesThousandSeatAuditoriumWithinBudget() {
+        ShowSeatInventory inventory = BestAvailableAllocatorTest.auditorium(0.6, 42L);
+        int warmup = 20_000;
+        int iterations = 200_000;
+
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += inventory.findBestAvailable(1 + (i & 3), null).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += inventory.findBestAvailable(1 + (i & 3), null).size();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        double microsPerSearch = elapsed / 1_000.0 / iterations;
+        assertTrue(sink > 0);
+        // Generous bound so slow CI machines pass; a typical run is a few microseconds
+        assertTrue(microsPerSearch < 100, "search took " + microsPerSearch + " us");
+    }
+}
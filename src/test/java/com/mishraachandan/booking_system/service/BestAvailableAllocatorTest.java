@@ -0,0 +1,88 @@
+package com.mishraachandan.booking_system.service;
+
+import com.mishraachandan.booking_system.dto.entity.Seat;
+import com.mishraachandan.booking_system.dto.entity.SeatStatus;
+import com.mishraachandan.booking_system.dto.pojo.ShowHeader;
+import com.mishraachandan.booking_system.dto.pojo.ShowSeatState;
+import com.mishraachandan.booking_system.dto.status.SeatType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Correctness of {@link ShowSeatInventory#findBestAvailable} on a 1,000-seat
+ * auditorium (40 rows x 25 seats). Runs without a Spring context; throughput
+ * is measured separately by {@link BestAvailableAllocatorBenchmarkTest}.
+ */
+class BestAvailableAllocatorTest {
+
+    static final int ROWS = 40;
+    static final int COLUMNS = 25;
+
+    @Test
+    void picksAdjacentAvailableSeatsInOneRow() {
+        ShowSeatInventory inventory = auditorium(0.6, 7L);
+
+        List<Long> block = inventory.findBestAvailable(4, null);
+
+        assertEquals(4, block.size());
+        long first = block.get(0);
+        for (int i = 0; i < block.size(); i++) {
+            long id = block.get(i);
+            assertEquals(first + i, id, "seats must be adjacent");
+            assertEquals((first - 1) / COLUMNS, (id - 1) / COLUMNS, "seats must share a row");
+            assertEquals(SeatStatus.AVAILABLE, inventory.statusOf(id));
+        }
+    }
+
+    @Test
+    void prefersIdealRowAndCentreOnEmptyAuditorium() {
+        ShowSeatInventory inventory = auditorium(0.0, 1L);
+
+        List<Long> block = inventory.findBestAvailable(5, null);
+
+        int idealRow = Math.round((ROWS - 1) * 2 / 3f);
+        long first = block.get(0);
+        assertEquals(idealRow, (first - 1) / COLUMNS);
+        assertEquals(10, (first - 1) % COLUMNS, "5 seats centred in 25 start at column 11");
+    }
+
+    @Test
+    void honoursSeatTypeAndReportsNoBlock() {
+        ShowSeatInventory inventory = auditorium(0.0, 1L);
+
+        List<Long> vip = inventory.findBestAvailable(2, SeatType.VIP);
+        assertTrue(vip.stream().allMatch(id -> (id - 1) / COLUMNS >= ROWS - 5));
+
+        assertTrue(inventory.findBestAvailable(COLUMNS + 1, null).isEmpty());
+    }
+
+    /**
+     * Rows "A".."Z", "AA".."AN"; the last five rows are VIP. Seat and
+     * ShowSeat ids are both 1-based row-major, so id - 1 = row * COLUMNS + column.
+     */
+    static ShowSeatInventory auditorium(double occupancy, long seed) {
+        Random random = new Random(seed);
+        List<Seat> seats = new ArrayList<>();
+        List<ShowSeatState> overlay = new ArrayList<>();
+        for (int r = 0; r < ROWS; r++) {
+            String row = r < 26 ? String.valueOf((char) ('A' + r)) : "A" + (char) ('A' + r - 26);
+            SeatType type = r >= ROWS - 5 ? SeatType.VIP : SeatType.REGULAR;
+            for (int c = 0; c < COLUMNS; c++) {
+                long id = (long) r * COLUMNS + c + 1;
+                seats.add(Seat.builder().id(id).seatNumber(row + (c + 1)).seatType(type).build());
+                SeatStatus status = random.nextDouble() < occupancy ? SeatStatus.BOOKED : SeatStatus.AVAILABLE;
+                overlay.add(new ShowSeatState(id, id, BigDecimal.valueOf(200), status, null, null));
+            }
+        }
+        ShowHeader header = new ShowHeader();
+        header.setShowId(1L);
+        return new ShowSeatInventory(header, new ScreenSeatLayout(1L, seats), overlay);
+    }
+}
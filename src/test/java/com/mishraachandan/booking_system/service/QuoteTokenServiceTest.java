@@ -0,0 +1,146 @@
+package com.mishraachandan.booking_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Quote tokens for user 7 on show 3 with two seats, checked against what
+ * {@link QuoteTokenService#verify} must reject.
+ */
+class QuoteTokenServiceTest {
+
+    private static final String SECRET = "test-secret";
+    private static final Long USER = 7L;
+    private static final Long SHOW = 3L;
+    private static final Base64.Encoder B64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final QuoteTokenService service = new QuoteTokenService(SECRET);
+
+    @Test
+    void verifiesTheTokenItIssued() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+
+        assertEquals(prices(), service.verify(token, USER, SHOW, List.of(11L, 12L)));
+        assertEquals(Map.of(12L, new BigDecimal("275.50")), service.verify(token, USER, SHOW, List.of(12L)));
+    }
+
+    @Test
+    void issuesNothingWithoutASecret() {
+        QuoteTokenService unsigned = new QuoteTokenService("");
+
+        assertNull(unsigned.issue(USER, SHOW, prices(), inAMinute()));
+        assertNull(unsigned.verify(service.issue(USER, SHOW, prices(), inAMinute()), USER, SHOW, List.of(11L)));
+    }
+
+    @Test
+    void rejectsATamperedPayload() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+        String mac = token.substring(token.indexOf('.') + 1);
+        String cheaper = encode(SHOW + "|" + USER + "|" + inAMinute() + "|11:1.00,12:1.00");
+
+        assertNull(service.verify(cheaper + "." + mac, USER, SHOW, List.of(11L, 12L)));
+    }
+
+    @Test
+    void rejectsATamperedMac() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+        String payload = token.substring(0, token.indexOf('.'));
+        String otherMac = B64.encodeToString(new byte[32]);
+
+        assertNull(service.verify(payload + "." + otherMac, USER, SHOW, List.of(11L, 12L)));
+        assertNull(service.verify(payload + ".", USER, SHOW, List.of(11L, 12L)));
+    }
+
+    @Test
+    void rejectsAnotherSecret() {
+        String token = new QuoteTokenService("other-secret").issue(USER, SHOW, prices(), inAMinute());
+
+        assertNull(service.verify(token, USER, SHOW, List.of(11L, 12L)));
+    }
+
+    @Test
+    void rejectsAnotherUserOrShow() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+
+        assertNull(service.verify(token, 8L, SHOW, List.of(11L, 12L)));
+        assertNull(service.verify(token, USER, 4L, List.of(11L, 12L)));
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        String token = service.issue(USER, SHOW, prices(), System.currentTimeMillis() - 1);
+
+        assertNull(service.verify(token, USER, SHOW, List.of(11L, 12L)));
+    }
+
+    @Test
+    void rejectsATokenMissingASeat() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+
+        assertNull(service.verify(token, USER, SHOW, List.of(11L, 12L, 13L)));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String token = service.issue(USER, SHOW, prices(), inAMinute());
+        List<Long> seats = List.of(11L, 12L);
+
+        assertNull(service.verify(null, USER, SHOW, seats));
+        assertNull(service.verify("", USER, SHOW, seats));
+        assertNull(service.verify(token.replace(".", ""), USER, SHOW, seats));
+        assertNull(service.verify("not*base64." + token.substring(token.indexOf('.') + 1), USER, SHOW, seats));
+        assertNull(service.verify(token.substring(0, token.indexOf('.') + 1) + "not*base64", USER, SHOW, seats));
+    }
+
+    @Test
+    void rejectsSignedTokensWithBadNumbers() {
+        List<Long> seats = List.of(11L);
+
+        assertNull(service.verify(signed(SHOW + "|" + USER + "|soon|11:250.00"), USER, SHOW, seats));
+        assertNull(service.verify(signed(SHOW + "|" + USER + "|" + inAMinute() + "|x:250.00"), USER, SHOW, seats));
+        assertNull(service.verify(signed(SHOW + "|" + USER + "|" + inAMinute() + "|11:free"), USER, SHOW, seats));
+        assertNull(service.verify(signed(SHOW + "|" + USER + "|" + inAMinute() + "|11"), USER, SHOW, seats));
+        assertNull(service.verify(signed(SHOW + "|" + USER + "|" + inAMinute()), USER, SHOW, seats));
+        assertNotNull(service.verify(signed(SHOW + "|" + USER + "|" + inAMinute() + "|11:250.00"), USER, SHOW, seats));
+    }
+
+    private static Map<Long, BigDecimal> prices() {
+        Map<Long, BigDecimal> prices = new LinkedHashMap<>();
+        prices.put(11L, new BigDecimal("250.00"));
+        prices.put(12L, new BigDecimal("275.50"));
+        return prices;
+    }
+
+    private static long inAMinute() {
+        return System.currentTimeMillis() + 60_000L;
+    }
+
+    private static String encode(String payload) {
+        return B64.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** A token for {@code payload} signed the way the service signs, so only the payload is at fault. */
+    private static String signed(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            mac.update("price-quote|".getBytes(StandardCharsets.UTF_8));
+            byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+            return B64.encodeToString(bytes) + "." + B64.encodeToString(mac.doFinal(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.mishraachandan.booking_system.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Deadlines on a small {@link TimingWheel} (1s ticks, 4 slots per level), so
+ * level 0 covers 4s, level 1 16s and level 2 64s.
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1_000L;
+
+    @Test
+    void roundsDeadlinesUpToTheNextTick() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0L);
+        wheel.schedule("a", 1L);
+        wheel.schedule("b", 2_000L);
+
+        assertTrue(wheel.advance(999L).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(1_000L));
+        assertTrue(wheel.advance(1_999L).isEmpty());
+        assertEquals(List.of("b"), wheel.advance(2_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cascadesDeadlinesBeyondTheFirstLevel() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 0L);
+        wheel.schedule("level1", 10_500L);    // tick 11
+        wheel.schedule("level2", 37_000L);    // tick 37
+        wheel.schedule("level3", 100_000L);   // tick 100, needs a level added on demand
+
+        assertTrue(wheel.advance(10_999L).isEmpty());
+        assertEquals(List.of("level1"), wheel.advance(11_000L));
+        assertTrue(wheel.advance(36_999L).isEmpty());
+        assertEquals(List.of("level2"), wheel.advance(37_000L));
+        assertTrue(wheel.advance(99_999L).isEmpty());
+        assertEquals(List.of("level3"), wheel.advance(100_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void returnsItemsInDeadlineOrderWhenAdvancedInOneStep() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(TICK, 4, 0L);
+        List<Integer> expected = new ArrayList<>();
+        for (int second = 70; second >= 1; second -= 3) {
+            wheel.schedule(second, second * TICK);
+        }
+        for (int second = 1; second <= 70; second += 3) {
+            expected.add(second);
+        }
+
+        assertEquals(expected, wheel.advance(70_000L));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void returnsPastDeadlinesOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(TICK, 4, 50_000L);
+        wheel.schedule("late", 20_000L);
+
+        assertEquals(List.of("late"), wheel.advance(50_000L));
+    }
+}